@@ -0,0 +1,154 @@
+package main.java.com.moneymind.benchmark;
+
+import main.java.com.moneymind.database.DatabaseInitializer;
+import main.java.com.moneymind.database.DatabaseManager;
+import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.model.Transaction;
+import main.java.com.moneymind.service.CategoryService;
+import main.java.com.moneymind.service.TransactionService;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds a wide, deep synthetic category subtree (a long parent chain with
+ * many more categories hung off random points of it) and times the subtree
+ * queries and the flatten-then-delete of the whole subtree. It also checks
+ * that a transaction on the deepest leaf blocks the delete, and that the
+ * database and the in-memory tree agree afterwards; exits with status 1 if
+ * either check fails.
+ *
+ * Uses the application database under data/ in the working directory, so
+ * run it from a scratch directory. Everything it adds is removed again.
+ *
+ * Usage: CategorySubtreeBenchmark [chain depth] [extra categories]
+ */
+public class CategorySubtreeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 3_000;
+        int wide = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        dbManager.connect();
+        DatabaseInitializer.initializeDatabase();
+
+        boolean passed;
+        try {
+            passed = run(dbManager, depth, wide);
+        } finally {
+            dbManager.disconnect();
+        }
+
+        System.out.println(passed ? "All checks passed." : "CHECKS FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(DatabaseManager dbManager, int depth, int wide) throws SQLException {
+        CategoryService categoryService = new CategoryService();
+        TransactionService transactionService = new TransactionService();
+        int categoriesBefore = categoryService.getAllCategories().size();
+        boolean passed = true;
+
+        // A chain of depth categories, then wide more under random members of the subtree
+        long start = System.nanoTime();
+        Category root = new Category("Benchmark Root", Category.CategoryType.EXPENSE);
+        categoryService.addCategory(root);
+        List<Long> ids = new ArrayList<>();
+        ids.add(root.getId());
+
+        Random random = new Random(1);
+        dbManager.beginTransaction();
+        try {
+            Long parentId = root.getId();
+            for (int i = 0; i < depth; i++) {
+                Category category = new Category("Chain " + i, Category.CategoryType.EXPENSE, parentId);
+                categoryService.addCategory(category);
+                parentId = category.getId();
+                ids.add(parentId);
+            }
+            for (int i = 0; i < wide; i++) {
+                Category category = new Category("Wide " + i, Category.CategoryType.EXPENSE,
+                        ids.get(random.nextInt(ids.size())));
+                categoryService.addCategory(category);
+                ids.add(category.getId());
+            }
+            dbManager.commitTransaction();
+        } catch (SQLException e) {
+            dbManager.rollbackTransaction();
+            throw e;
+        }
+        Long deepestLeaf = ids.get(depth);
+        System.out.printf("Built %d categories in %.1f s%n", ids.size(), (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        int subtreeSize = categoryService.getCategorySubtreeIds(root.getId()).size();
+        System.out.printf("Subtree query: %d ids in %.1f ms, deepest level %d%n", subtreeSize,
+                (System.nanoTime() - start) / 1e6, categoryService.getCategoryLevel(deepestLeaf));
+        passed &= check(subtreeSize == ids.size(), "subtree query returns every category built");
+
+        // A single transaction on the deepest leaf must block the delete
+        Transaction transaction = new Transaction("Benchmark transaction", new BigDecimal("1.00"),
+                LocalDate.now(), deepestLeaf, Transaction.TransactionType.EXPENSE);
+        transactionService.addTransaction(transaction);
+
+        start = System.nanoTime();
+        boolean refused = false;
+        try {
+            categoryService.deleteCategoryAndSubcategories(root.getId());
+        } catch (SQLException e) {
+            refused = true;
+        }
+        System.out.printf("Blocked delete: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        passed &= check(refused, "transaction on the deepest leaf blocks the delete");
+        passed &= check(categoryService.getCategorySubtreeIds(root.getId()).size() == ids.size(),
+                "blocked delete leaves the subtree in place");
+        passed &= check(treesAgree(categoryService), "database and tree agree after the blocked delete");
+
+        transactionService.deleteTransaction(transaction.getId());
+
+        // Full-subtree delete: flatten under the root, then one set-based delete
+        start = System.nanoTime();
+        boolean deleted = categoryService.deleteCategoryAndSubcategories(root.getId());
+        System.out.printf("Subtree delete: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        passed &= check(deleted, "subtree delete reports success");
+        passed &= check(categoryService.getAllCategories().size() == categoriesBefore,
+                "every category of the subtree is gone");
+        passed &= check(categoryService.getCategoryTree().search(root.getId()) == null
+                && categoryService.getCategoryTree().search(deepestLeaf) == null,
+                "the tree no longer holds the subtree");
+        passed &= check(treesAgree(categoryService), "database and tree agree after the delete");
+
+        return passed;
+    }
+
+    /**
+     * Whether the service's in-memory tree matches a tree freshly loaded
+     * from the database, category by category in pre-order.
+     */
+    private static boolean treesAgree(CategoryService categoryService) throws SQLException {
+        if (categoryService.syncCategoryTree()) {
+            return false;
+        }
+        return describe(categoryService).equals(describe(new CategoryService()));
+    }
+
+    private static List<String> describe(CategoryService categoryService) {
+        List<String> rows = new ArrayList<>();
+        for (Category category : categoryService.getCategoryTree().getPreorder()) {
+            rows.add(category.getId() + ":" + category.getParentId() + ":" + category.getName()
+                    + ":" + category.getType() + ":" + category.getLevel());
+        }
+        return rows;
+    }
+
+    private static boolean check(boolean condition, String description) {
+        System.out.println((condition ? "  ok    " : "  FAIL  ") + description);
+        return condition;
+    }
+}
@@ -0,0 +1,177 @@
+package main.java.com.moneymind.benchmark;
+
+import main.java.com.moneymind.database.FullTextSearch;
+import main.java.com.moneymind.database.StorageProfile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.Random;
+
+/**
+ * Compares LIKE scans with the FTS5 index for transaction search on a
+ * scratch database shaped like the real schema, with the sync triggers in
+ * place while rows are loaded.
+ *
+ * Usage: SearchBenchmark [rows] [queries per term]
+ */
+public class SearchBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String[] MERCHANTS = {
+            "Starbucks", "Walmart", "Amazon", "Shell", "Uber", "Netflix", "Spotify", "Target",
+            "Costco", "Safeway", "Chevron", "Lyft", "Airbnb", "Delta", "Marriott", "Walgreens",
+            "CVS", "Apple", "Steam", "Comcast", "Verizon", "Kroger", "Subway", "Chipotle"
+    };
+    private static final String[] WORDS = {
+            "coffee", "groceries", "fuel", "ride", "subscription", "refund", "dinner", "lunch",
+            "hotel", "flight", "pharmacy", "internet", "phone", "bill", "gift", "tickets",
+            "rent", "salary", "invoice", "bonus", "parking", "repair", "books", "gym"
+    };
+    private static final String[] CATEGORIES = {
+            "Restaurants", "Groceries", "Gas & Fuel", "Public Transport", "Entertainment",
+            "Travel", "Pharmacy", "Internet", "Phone", "Salary", "Freelance", "Shopping"
+    };
+
+    private static final String[] SEARCHES = {"coffee", "star", "Amazon refund", "\"hotel bill\"", "travel", "gym"};
+
+    private static final String LIKE_SQL = """
+        SELECT COUNT(*) FROM (
+            SELECT t.id
+            FROM transactions t
+            JOIN categories c ON t.category_id = c.id
+            WHERE t.description LIKE ? OR c.name LIKE ?
+            ORDER BY t.transaction_date DESC
+        )
+    """;
+
+    private static final String FTS_SQL = """
+        SELECT COUNT(*) FROM (
+            SELECT t.id
+            FROM transactions_fts f
+            JOIN transactions t ON t.id = f.rowid
+            JOIN categories c ON t.category_id = c.id
+            WHERE transactions_fts MATCH ?
+            ORDER BY bm25(transactions_fts, 2.0, 1.0), t.transaction_date DESC
+        )
+    """;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path file = Files.createTempFile("moneymind-search-", ".db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            if (!FullTextSearch.isAvailable(connection)) {
+                System.out.println("This SQLite build has no FTS5; nothing to compare.");
+                return;
+            }
+
+            StorageProfile.BULK_LOAD.apply(connection, true);
+            createSchema(connection);
+
+            long start = System.nanoTime();
+            load(connection, rows);
+            System.out.printf("Loaded %d rows with FTS triggers in %.1f s%n",
+                    rows, (System.nanoTime() - start) / 1e9);
+            StorageProfile.BALANCED.apply(connection, true);
+
+            System.out.println();
+            System.out.printf("%-18s %10s %12s %10s %12s %9s%n",
+                    "Search", "LIKE rows", "LIKE ms/q", "FTS rows", "FTS ms/q", "speedup");
+
+            for (String search : SEARCHES) {
+                String likeKeyword = search.replace("\"", "");
+                long likeRows = 0;
+                long likeStart = System.nanoTime();
+                try (PreparedStatement stmt = connection.prepareStatement(LIKE_SQL)) {
+                    for (int i = 0; i < repeats; i++) {
+                        stmt.setString(1, "%" + likeKeyword + "%");
+                        stmt.setString(2, "%" + likeKeyword + "%");
+                        likeRows = count(stmt);
+                    }
+                }
+                double likeMillis = (System.nanoTime() - likeStart) / 1e6 / repeats;
+
+                long ftsRows = 0;
+                long ftsStart = System.nanoTime();
+                try (PreparedStatement stmt = connection.prepareStatement(FTS_SQL)) {
+                    for (int i = 0; i < repeats; i++) {
+                        stmt.setString(1, FullTextSearch.toMatchQuery(search));
+                        ftsRows = count(stmt);
+                    }
+                }
+                double ftsMillis = (System.nanoTime() - ftsStart) / 1e6 / repeats;
+
+                System.out.printf("%-18s %10d %12.2f %10d %12.2f %8.1fx%n",
+                        search, likeRows, likeMillis, ftsRows, ftsMillis, likeMillis / ftsMillis);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Paths.get(file + "-wal"));
+            Files.deleteIfExists(Paths.get(file + "-shm"));
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE categories (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name VARCHAR(100) NOT NULL
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description VARCHAR(255) NOT NULL,
+                    amount_cents INTEGER NOT NULL,
+                    transaction_date INTEGER NOT NULL,
+                    category_id INTEGER NOT NULL
+                )
+            """);
+            stmt.execute("CREATE INDEX idx_transactions_category_date ON transactions(category_id, transaction_date)");
+            for (String sql : FullTextSearch.schemaStatements()) {
+                stmt.execute(sql);
+            }
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO categories (name) VALUES (?)")) {
+            for (String category : CATEGORIES) {
+                stmt.setString(1, category);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void load(Connection connection, int rows) throws SQLException {
+        Random random = new Random(7);
+        connection.setAutoCommit(false);
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO transactions (description, amount_cents, transaction_date, category_id) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                String description = MERCHANTS[random.nextInt(MERCHANTS.length)] + " "
+                        + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                stmt.setString(1, description);
+                stmt.setLong(2, 100 + random.nextInt(100_000));
+                stmt.setInt(3, 18_000 + random.nextInt(3650));
+                stmt.setInt(4, 1 + random.nextInt(CATEGORIES.length));
+                stmt.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                    connection.commit();
+                }
+            }
+            stmt.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static long count(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
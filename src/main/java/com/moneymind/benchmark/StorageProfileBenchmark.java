@@ -0,0 +1,183 @@
+package main.java.com.moneymind.benchmark;
+
+import main.java.com.moneymind.database.StorageProfile;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures insert and scan throughput for each StorageProfile against a
+ * scratch database shaped like the transactions table.
+ *
+ * Usage: StorageProfileBenchmark [rows] [single-insert rows] [results.csv]
+ */
+public class StorageProfileBenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final int CATEGORY_COUNT = 40;
+    private static final int DAY_SPAN = 3650;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int singleRows = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Path csv = args.length > 2 ? Paths.get(args[2]) : null;
+
+        List<Result> results = new ArrayList<>();
+        for (StorageProfile profile : StorageProfile.values()) {
+            results.add(run(profile, rows, singleRows));
+        }
+
+        System.out.println();
+        System.out.printf("%-10s %16s %16s %14s %14s%n",
+                "Profile", "single ins/s", "batched ins/s", "scan rows/s", "range q/s");
+        for (Result result : results) {
+            System.out.printf("%-10s %16.0f %16.0f %14.0f %14.1f%n",
+                    result.profile.getDisplayName(), result.singleInsertsPerSecond,
+                    result.batchedInsertsPerSecond, result.scanRowsPerSecond, result.rangeQueriesPerSecond);
+        }
+
+        if (csv != null) {
+            writeCsv(csv, rows, results);
+            System.out.println("Results written to " + csv.toAbsolutePath());
+        }
+    }
+
+    private static Result run(StorageProfile profile, int rows, int singleRows) throws SQLException, IOException {
+        Path file = Files.createTempFile("moneymind-bench-", ".db");
+        Result result = new Result(profile);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            profile.apply(connection, true);
+            createSchema(connection);
+            Random random = new Random(42);
+
+            // One auto-committed insert per row, as the UI does
+            long start = System.nanoTime();
+            try (PreparedStatement stmt = connection.prepareStatement(insertSql())) {
+                for (int i = 0; i < singleRows; i++) {
+                    bindRow(stmt, random, i);
+                    stmt.executeUpdate();
+                }
+            }
+            result.singleInsertsPerSecond = perSecond(singleRows, System.nanoTime() - start);
+
+            // Batched inserts inside transactions, as an import does
+            start = System.nanoTime();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(insertSql())) {
+                for (int i = 0; i < rows; i++) {
+                    bindRow(stmt, random, i);
+                    stmt.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        stmt.executeBatch();
+                        connection.commit();
+                    }
+                }
+                stmt.executeBatch();
+                connection.commit();
+            }
+            connection.setAutoCommit(true);
+            result.batchedInsertsPerSecond = perSecond(rows, System.nanoTime() - start);
+
+            // Full scan with per-row materialisation
+            int total = rows + singleRows;
+            start = System.nanoTime();
+            long checksum = 0;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT amount_cents, transaction_date, category_id FROM transactions")) {
+                while (rs.next()) {
+                    checksum += rs.getLong(1) + rs.getLong(2) + rs.getLong(3);
+                }
+            }
+            result.scanRowsPerSecond = perSecond(total, System.nanoTime() - start);
+
+            // Month-sized range aggregates over the date index
+            int queries = 500;
+            start = System.nanoTime();
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE transaction_date BETWEEN ? AND ?")) {
+                for (int i = 0; i < queries; i++) {
+                    int from = random.nextInt(DAY_SPAN - 31);
+                    stmt.setInt(1, from);
+                    stmt.setInt(2, from + 30);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            checksum += rs.getLong(1);
+                        }
+                    }
+                }
+            }
+            result.rangeQueriesPerSecond = perSecond(queries, System.nanoTime() - start);
+
+            System.out.println(profile.getDisplayName() + " done (checksum " + checksum + ")");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Paths.get(file + "-wal"));
+            Files.deleteIfExists(Paths.get(file + "-shm"));
+        }
+
+        return result;
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE transactions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description VARCHAR(255) NOT NULL,
+                    amount_cents INTEGER NOT NULL,
+                    transaction_date INTEGER NOT NULL,
+                    category_id INTEGER NOT NULL,
+                    type VARCHAR(20) NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+            stmt.execute("CREATE INDEX idx_transactions_date ON transactions(transaction_date)");
+            stmt.execute("CREATE INDEX idx_transactions_category ON transactions(category_id)");
+        }
+    }
+
+    private static String insertSql() {
+        return "INSERT INTO transactions (description, amount_cents, transaction_date, category_id, type) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    private static void bindRow(PreparedStatement stmt, Random random, int i) throws SQLException {
+        stmt.setString(1, "Benchmark transaction " + i);
+        stmt.setLong(2, 100 + random.nextInt(500_000));
+        stmt.setInt(3, random.nextInt(DAY_SPAN));
+        stmt.setInt(4, 1 + random.nextInt(CATEGORY_COUNT));
+        stmt.setString(5, random.nextInt(5) == 0 ? "INCOME" : "EXPENSE");
+    }
+
+    private static double perSecond(long operations, long nanos) {
+        return operations / (nanos / 1_000_000_000.0);
+    }
+
+    private static void writeCsv(Path csv, int rows, List<Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("profile,rows,single_inserts_per_sec,batched_inserts_per_sec,scan_rows_per_sec,range_queries_per_sec");
+            for (Result result : results) {
+                out.printf("%s,%d,%.0f,%.0f,%.0f,%.1f%n", result.profile.name(), rows,
+                        result.singleInsertsPerSecond, result.batchedInsertsPerSecond,
+                        result.scanRowsPerSecond, result.rangeQueriesPerSecond);
+            }
+        }
+    }
+
+    private static class Result {
+        final StorageProfile profile;
+        double singleInsertsPerSecond;
+        double batchedInsertsPerSecond;
+        double scanRowsPerSecond;
+        double rangeQueriesPerSecond;
+
+        Result(StorageProfile profile) {
+            this.profile = profile;
+        }
+    }
+}
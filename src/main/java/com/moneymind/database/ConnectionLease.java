@@ -0,0 +1,74 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A single borrow of a pooled connection. Closing the lease hands the
+ * connection back to the pool; the connection itself stays open.
+ */
+public final class ConnectionLease implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final boolean writer;
+    private final long borrowedAt;
+    private final Thread owner;
+    private final String threadName;
+    private final Throwable origin;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private volatile boolean leakReported;
+
+    ConnectionLease(ConnectionPool pool, Connection connection, boolean writer, boolean trackOrigin) {
+        this.pool = pool;
+        this.connection = connection;
+        this.writer = writer;
+        this.borrowedAt = System.currentTimeMillis();
+        this.owner = Thread.currentThread();
+        this.threadName = owner.getName();
+        this.origin = trackOrigin ? new Throwable("Connection borrowed here") : null;
+    }
+
+    public Connection getConnection() {
+        if (released.get()) {
+            throw new IllegalStateException("Connection lease has already been released");
+        }
+        return connection;
+    }
+
+    public boolean isWriter() { return writer; }
+    public boolean isReleased() { return released.get(); }
+    public long getBorrowedAt() { return borrowedAt; }
+    public String getThreadName() { return threadName; }
+
+    long getHeldMillis() {
+        return System.currentTimeMillis() - borrowedAt;
+    }
+
+    Throwable getOrigin() { return origin; }
+
+    Connection rawConnection() { return connection; }
+
+    boolean markLeakReported() {
+        if (leakReported) {
+            return false;
+        }
+        leakReported = true;
+        return true;
+    }
+
+    /**
+     * Releases the lease. A writer lease holds the pool's writer lock, which
+     * only the borrowing thread can unlock, so closing it on another thread
+     * throws IllegalStateException and leaves the lease open for its owner.
+     */
+    @Override
+    public void close() {
+        if (writer && !released.get() && Thread.currentThread() != owner) {
+            throw new IllegalStateException("Write connection lease borrowed on " + threadName
+                    + " cannot be released from " + Thread.currentThread().getName());
+        }
+        if (released.compareAndSet(false, true)) {
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded SQLite connection pool with several read-only connections and a
+ * single dedicated writer. SQLite allows only one writer at a time, so the
+ * writer is guarded by a fair reentrant lock while readers are handed out
+ * from a fixed-size set and can run alongside it.
+ */
+public class ConnectionPool {
+
+    /**
+     * Opens physical connections for the pool.
+     */
+    public interface ConnectionFactory {
+        Connection open(boolean readOnly) throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxReaders;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final Semaphore readerPermits;
+    private final ConcurrentLinkedQueue<Connection> idleReaders = new ConcurrentLinkedQueue<>();
+    private final List<Connection> openReaders = new ArrayList<>();
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private final Set<ConnectionLease> activeLeases = ConcurrentHashMap.newKeySet();
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+
+    private volatile Connection writer;
+    private volatile boolean closed;
+    // Capturing a stack trace per borrow is costly; enable with -Dmoneymind.trackLeaseOrigins=true
+    private volatile boolean trackLeaseOrigins = Boolean.getBoolean("moneymind.trackLeaseOrigins");
+    private ScheduledExecutorService leakDetector;
+
+    public ConnectionPool(ConnectionFactory factory, int maxReaders,
+                          long borrowTimeoutMillis, long leakThresholdMillis) {
+        if (maxReaders < 1) {
+            throw new IllegalArgumentException("Pool needs at least one reader connection");
+        }
+        this.factory = factory;
+        this.maxReaders = maxReaders;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.readerPermits = new Semaphore(maxReaders, true);
+        startLeakDetector();
+    }
+
+    // Borrowing
+    public ConnectionLease borrowReader() throws SQLException {
+        ensureOpen();
+        try {
+            if (!readerPermits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a read connection (" + maxReaders + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+
+        try {
+            Connection connection = takeIdleReader();
+            if (connection == null) {
+                connection = factory.open(true);
+                synchronized (openReaders) {
+                    openReaders.add(connection);
+                }
+            }
+            return register(new ConnectionLease(this, connection, false, trackLeaseOrigins));
+        } catch (SQLException | RuntimeException e) {
+            readerPermits.release();
+            throw e;
+        }
+    }
+
+    public ConnectionLease borrowWriter() throws SQLException {
+        ensureOpen();
+        try {
+            if (!writerLock.tryLock(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for the write connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection", e);
+        }
+
+        try {
+            return register(new ConnectionLease(this, getWriterConnection(), true, trackLeaseOrigins));
+        } catch (SQLException | RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the writer connection without taking a lease. Only meant for
+     * legacy callers that manage the connection themselves.
+     */
+    public Connection getWriterConnection() throws SQLException {
+        Connection current = writer;
+        if (current == null || current.isClosed()) {
+            synchronized (this) {
+                current = writer;
+                if (current == null || current.isClosed()) {
+                    if (current != null) {
+                        dropStatementCache(current);
+                    }
+                    current = factory.open(false);
+                    writer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the prepared statement cache belonging to a pooled connection.
+     */
+    public StatementCache getStatementCache(Connection connection) {
+        return statementCaches.computeIfAbsent(connection,
+                c -> new StatementCache(c, StatementCache.DEFAULT_CAPACITY));
+    }
+
+    public long getStatementCacheHits() {
+        long hits = 0;
+        for (StatementCache cache : statementCaches.values()) {
+            hits += cache.getHits();
+        }
+        return hits;
+    }
+
+    public long getStatementCacheMisses() {
+        long misses = 0;
+        for (StatementCache cache : statementCaches.values()) {
+            misses += cache.getMisses();
+        }
+        return misses;
+    }
+
+    public boolean isWriterHeldByCurrentThread() {
+        return writerLock.isHeldByCurrentThread();
+    }
+
+    void release(ConnectionLease lease) {
+        activeLeases.remove(lease);
+
+        if (lease.isWriter()) {
+            writerLock.unlock(); // ConnectionLease.close checked this is the borrowing thread
+            return;
+        }
+
+        Connection connection = lease.rawConnection();
+        try {
+            if (closed || connection.isClosed()) {
+                discardReader(connection);
+            } else {
+                idleReaders.offer(connection);
+            }
+        } catch (SQLException e) {
+            discardReader(connection);
+        } finally {
+            readerPermits.release();
+        }
+    }
+
+    // Pool state
+    public int getMaxReaders() { return maxReaders; }
+    public int getActiveLeaseCount() { return activeLeases.size(); }
+    public int getIdleReaderCount() { return idleReaders.size(); }
+
+    public int getOpenReaderCount() {
+        synchronized (openReaders) {
+            return openReaders.size();
+        }
+    }
+
+    public void setTrackLeaseOrigins(boolean trackLeaseOrigins) {
+        this.trackLeaseOrigins = trackLeaseOrigins;
+    }
+
+    public void close() {
+        closed = true;
+        if (leakDetector != null) {
+            leakDetector.shutdownNow();
+        }
+
+        if (!activeLeases.isEmpty()) {
+            System.err.println("Closing connection pool with " + activeLeases.size() + " lease(s) still open");
+        }
+
+        for (StatementCache cache : statementCaches.values()) {
+            cache.clear();
+        }
+        statementCaches.clear();
+
+        synchronized (openReaders) {
+            for (Connection connection : openReaders) {
+                closeQuietly(connection);
+            }
+            openReaders.clear();
+        }
+        idleReaders.clear();
+
+        if (writer != null) {
+            closeQuietly(writer);
+            writer = null;
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Private helper methods
+    private ConnectionLease register(ConnectionLease lease) {
+        activeLeases.add(lease);
+        return lease;
+    }
+
+    private Connection takeIdleReader() throws SQLException {
+        Connection connection;
+        while ((connection = idleReaders.poll()) != null) {
+            if (!connection.isClosed()) {
+                return connection;
+            }
+            discardReader(connection);
+        }
+        return null;
+    }
+
+    private void discardReader(Connection connection) {
+        synchronized (openReaders) {
+            openReaders.remove(connection);
+        }
+        dropStatementCache(connection);
+        closeQuietly(connection);
+    }
+
+    private void dropStatementCache(Connection connection) {
+        StatementCache cache = statementCaches.remove(connection);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed");
+        }
+    }
+
+    private void startLeakDetector() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+
+        leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "moneymind-connection-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(1000, leakThresholdMillis / 2);
+        leakDetector.scheduleAtFixedRate(this::reportLeaks, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void reportLeaks() {
+        for (ConnectionLease lease : activeLeases) {
+            if (lease.getHeldMillis() >= leakThresholdMillis && lease.markLeakReported()) {
+                System.err.println("Possible connection leak: " + (lease.isWriter() ? "write" : "read")
+                        + " connection held for " + lease.getHeldMillis() + " ms by thread " + lease.getThreadName());
+                if (lease.getOrigin() != null) {
+                    lease.getOrigin().printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package main.java.com.moneymind.database;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Schema for the daily_aggregates table: one row per (day, category, type)
+ * holding the sum and count of the matching transactions. Triggers on
+ * transactions keep it current, so period totals can be read per day instead
+ * of per transaction.
+ */
+public class DailyAggregates {
+    public static final String TABLE = "daily_aggregates";
+
+    public static final String BACKFILL_SQL = """
+        INSERT INTO daily_aggregates (day, category_id, type, total_cents, transaction_count)
+        SELECT transaction_date, category_id, type, SUM(amount_cents), COUNT(*)
+        FROM transactions
+        GROUP BY transaction_date, category_id, type
+    """;
+
+    // Trigger bodies shared by insert, delete and update
+    private static final String ADD_NEW = """
+        INSERT INTO daily_aggregates (day, category_id, type, total_cents, transaction_count)
+        VALUES (new.transaction_date, new.category_id, new.type, new.amount_cents, 1)
+        ON CONFLICT (day, category_id, type) DO UPDATE
+        SET total_cents = total_cents + excluded.total_cents,
+            transaction_count = transaction_count + 1;
+    """;
+
+    private static final String REMOVE_OLD = """
+        UPDATE daily_aggregates
+        SET total_cents = total_cents - old.amount_cents,
+            transaction_count = transaction_count - 1
+        WHERE day = old.transaction_date AND category_id = old.category_id AND type = old.type;
+        DELETE FROM daily_aggregates
+        WHERE day = old.transaction_date AND category_id = old.category_id AND type = old.type
+          AND transaction_count <= 0;
+    """;
+
+    private DailyAggregates() {}
+
+    /**
+     * Statements that create the table, its category index and the sync triggers.
+     */
+    public static List<String> schemaStatements() {
+        return List.of(
+                """
+                CREATE TABLE IF NOT EXISTS daily_aggregates (
+                    day INTEGER NOT NULL,
+                    category_id INTEGER NOT NULL,
+                    type VARCHAR(20) NOT NULL,
+                    total_cents INTEGER NOT NULL,
+                    transaction_count INTEGER NOT NULL,
+                    PRIMARY KEY (day, category_id, type)
+                ) WITHOUT ROWID
+                """,
+                "CREATE INDEX IF NOT EXISTS idx_daily_aggregates_category ON daily_aggregates(category_id, day)",
+                "CREATE TRIGGER IF NOT EXISTS daily_aggregates_insert AFTER INSERT ON transactions BEGIN\n"
+                        + ADD_NEW + "END",
+                "CREATE TRIGGER IF NOT EXISTS daily_aggregates_delete AFTER DELETE ON transactions BEGIN\n"
+                        + REMOVE_OLD + "END",
+                "CREATE TRIGGER IF NOT EXISTS daily_aggregates_update\n"
+                        + "AFTER UPDATE OF amount_cents, transaction_date, category_id, type ON transactions BEGIN\n"
+                        + REMOVE_OLD + ADD_NEW + "END"
+        );
+    }
+
+    /**
+     * Recomputes every aggregate from the transactions table. Runs in its own
+     * transaction unless the caller already holds one.
+     */
+    public static void rebuild(DatabaseManager dbManager) throws SQLException {
+        boolean ownTransaction = !dbManager.isInTransaction();
+        if (ownTransaction) {
+            dbManager.beginTransaction();
+        }
+        try {
+            dbManager.executeUpdate("DELETE FROM " + TABLE);
+            dbManager.executeUpdate(BACKFILL_SQL);
+            if (ownTransaction) {
+                dbManager.commitTransaction();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                dbManager.rollbackTransaction();
+            }
+            throw e;
+        }
+    }
+}
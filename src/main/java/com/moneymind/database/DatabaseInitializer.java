@@ -1,23 +1,56 @@
 package main.java.com.moneymind.database;
 
 import java.sql.*;
+import java.util.List;
 
 /**
- * Database schema initialization and sample data setup
+ * Database schema migrations and sample data setup
  */
 public class DatabaseInitializer {
+    // Anything larger than this (year ~29000) must be a millisecond timestamp
+    private static final long MAX_EPOCH_DAY = 10_000_000L;
+
+    /**
+     * Schema history, oldest first. Append new steps at the end and never
+     * edit a step that has shipped; databases created before versioning
+     * start at version 0 and run every step, so each one tolerates finding
+     * its change already in place.
+     */
+    static List<SchemaMigrator.Migration> migrations() {
+        return List.of(
+                new SchemaMigrator.Migration(1, "Create base schema", false,
+                        DatabaseInitializer::createTables),
+                new SchemaMigrator.Migration(2, "Store amounts as integer cents", true,
+                        DatabaseInitializer::migrateAmountsToCents),
+                new SchemaMigrator.Migration(3, "Store dates as epoch days", false,
+                        DatabaseInitializer::migrateDatesToEpochDays),
+                new SchemaMigrator.Migration(4, "Composite date indexes", false,
+                        DatabaseInitializer::createIndexes),
+                new SchemaMigrator.Migration(5, "Seed default categories", false,
+                        DatabaseInitializer::insertSampleCategories),
+                new SchemaMigrator.Migration(6, "Full-text search index", false,
+                        DatabaseInitializer::createFullTextIndex),
+                new SchemaMigrator.Migration(7, "Ledger paging index", false,
+                        DatabaseInitializer::createPagingIndex),
+                new SchemaMigrator.Migration(8, "Daily aggregates", false,
+                        DatabaseInitializer::createDailyAggregates)
+        );
+    }
 
     public static void initializeDatabase() throws SQLException {
-        createTables();
-        insertSampleCategories();
-        System.out.println("Database initialization completed.");
+        int applied = new SchemaMigrator(DatabaseManager.getInstance(), migrations()).migrate();
+        if (applied > 0) {
+            System.out.println("Database initialization completed.");
+        }
     }
 
-    private static void createTables() throws SQLException {
-        DatabaseManager dbManager = DatabaseManager.getInstance();
+    public static int getSchemaVersion() throws SQLException {
+        return new SchemaMigrator(DatabaseManager.getInstance(), migrations()).getCurrentVersion();
+    }
 
-        // Create categories table
-        String createCategoriesTable = """
+    // Migration steps
+    private static void createTables(DatabaseManager dbManager) throws SQLException {
+        dbManager.executeUpdate("""
             CREATE TABLE IF NOT EXISTS categories (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
                 name VARCHAR(100) NOT NULL,
@@ -26,76 +59,160 @@ public class DatabaseInitializer {
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 FOREIGN KEY (parent_id) REFERENCES categories(id) ON DELETE CASCADE
             )
+        """);
+
+        // Amounts in integer cents, dates as epoch days
+        dbManager.executeUpdate(transactionsTableSql("IF NOT EXISTS transactions"));
+        dbManager.executeUpdate(budgetsTableSql("IF NOT EXISTS budgets"));
+    }
+
+    private static void createIndexes(DatabaseManager dbManager) throws SQLException {
+        // Dates are epoch days, so the composite indexes serve range scans
+        // with an equality column up front
+        String createIndexes = """
+            DROP INDEX IF EXISTS idx_transactions_date;
+            DROP INDEX IF EXISTS idx_transactions_category;
+            DROP INDEX IF EXISTS idx_budgets_category;
+            CREATE INDEX IF NOT EXISTS idx_transactions_date_type ON transactions(transaction_date, type);
+            CREATE INDEX IF NOT EXISTS idx_transactions_category_date ON transactions(category_id, transaction_date);
+            CREATE INDEX IF NOT EXISTS idx_transactions_type ON transactions(type);
+            CREATE INDEX IF NOT EXISTS idx_categories_parent ON categories(parent_id);
+            CREATE INDEX IF NOT EXISTS idx_budgets_category_period ON budgets(category_id, start_date, end_date);
+            CREATE INDEX IF NOT EXISTS idx_budgets_period ON budgets(start_date, end_date);
         """;
 
-        // Create transactions table
-        String createTransactionsTable = """
-            CREATE TABLE IF NOT EXISTS transactions (
+        for (String index : createIndexes.split(";")) {
+            if (!index.trim().isEmpty()) {
+                dbManager.executeUpdate(index.trim());
+            }
+        }
+    }
+
+    private static void createPagingIndex(DatabaseManager dbManager) throws SQLException {
+        // Serves keyset pages ordered by (transaction_date DESC, id DESC) without a sort
+        dbManager.executeUpdate(
+                "CREATE INDEX IF NOT EXISTS idx_transactions_date_id ON transactions(transaction_date, id)");
+    }
+
+    private static void createDailyAggregates(DatabaseManager dbManager) throws SQLException {
+        for (String sql : DailyAggregates.schemaStatements()) {
+            dbManager.executeUpdate(sql);
+        }
+        // Runs inside the migration transaction, so rebuild does not start its own
+        DailyAggregates.rebuild(dbManager);
+    }
+
+    private static String transactionsTableSql(String tableName) {
+        return """
+            CREATE TABLE %s (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
                 description VARCHAR(255) NOT NULL,
-                amount DECIMAL(10,2) NOT NULL,
-                transaction_date DATE NOT NULL,
+                amount_cents INTEGER NOT NULL,
+                transaction_date INTEGER NOT NULL,
                 category_id INTEGER NOT NULL,
                 type VARCHAR(20) CHECK(type IN ('INCOME', 'EXPENSE')) NOT NULL,
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE RESTRICT
             )
-        """;
+        """.formatted(tableName);
+    }
 
-        // Create budgets table
-        String createBudgetsTable = """
-            CREATE TABLE IF NOT EXISTS budgets (
+    private static String budgetsTableSql(String tableName) {
+        return """
+            CREATE TABLE %s (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
                 category_id INTEGER NOT NULL,
-                amount DECIMAL(10,2) NOT NULL,
+                amount_cents INTEGER NOT NULL,
                 period VARCHAR(20) CHECK(period IN ('MONTHLY', 'YEARLY')) NOT NULL,
-                start_date DATE NOT NULL,
-                end_date DATE NOT NULL,
+                start_date INTEGER NOT NULL,
+                end_date INTEGER NOT NULL,
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE
             )
-        """;
-
-        // Create indexes for better performance
-        String createIndexes = """
-            CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions(transaction_date);
-            CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions(category_id);
-            CREATE INDEX IF NOT EXISTS idx_transactions_type ON transactions(type);
-            CREATE INDEX IF NOT EXISTS idx_categories_parent ON categories(parent_id);
-            CREATE INDEX IF NOT EXISTS idx_budgets_category ON budgets(category_id);
-            CREATE INDEX IF NOT EXISTS idx_budgets_period ON budgets(start_date, end_date);
-        """;
-
-        try {
-            dbManager.executeUpdate(createCategoriesTable);
-            System.out.println("Categories table created/verified.");
+        """.formatted(tableName);
+    }
 
-            dbManager.executeUpdate(createTransactionsTable);
-            System.out.println("Transactions table created/verified.");
+    /**
+     * Creates the FTS5 index over descriptions and category names and fills it
+     * from existing rows. Skipped when the SQLite build lacks FTS5; searches
+     * then fall back to LIKE.
+     */
+    private static void createFullTextIndex(DatabaseManager dbManager) throws SQLException {
+        try (ConnectionLease lease = dbManager.borrowWriteConnection()) {
+            if (!FullTextSearch.isAvailable(lease.getConnection())) {
+                System.out.println("FTS5 is not available, transaction search will use LIKE.");
+                return;
+            }
+        }
 
-            dbManager.executeUpdate(createBudgetsTable);
-            System.out.println("Budgets table created/verified.");
+        for (String sql : FullTextSearch.schemaStatements()) {
+            dbManager.executeUpdate(sql);
+        }
+        dbManager.executeUpdate("DELETE FROM " + FullTextSearch.TABLE);
+        dbManager.executeUpdate(FullTextSearch.BACKFILL_SQL);
+    }
 
-            // Create indexes
-            String[] indexes = createIndexes.split(";");
-            for (String index : indexes) {
-                if (!index.trim().isEmpty()) {
-                    dbManager.executeUpdate(index.trim());
-                }
-            }
-            System.out.println("Database indexes created/verified.");
+    /**
+     * Rebuilds tables that still store DECIMAL amounts so they store INTEGER
+     * cents instead. SQLite cannot change a column type in place, so each table
+     * is copied into a new one and swapped in. Indexes are recreated by the
+     * index migration that follows.
+     */
+    private static void migrateAmountsToCents(DatabaseManager dbManager) throws SQLException {
+        boolean transactionsLegacy = dbManager.columnExists("transactions", "amount");
+        boolean budgetsLegacy = dbManager.columnExists("budgets", "amount");
+
+        if (transactionsLegacy) {
+            dbManager.executeUpdate(transactionsTableSql("transactions_cents"));
+            dbManager.executeUpdate("""
+                INSERT INTO transactions_cents (id, description, amount_cents, transaction_date, category_id, type, created_at)
+                SELECT id, description, CAST(ROUND(amount * 100) AS INTEGER), transaction_date, category_id, type, created_at
+                FROM transactions
+            """);
+            dbManager.executeUpdate("DROP TABLE transactions");
+            dbManager.executeUpdate("ALTER TABLE transactions_cents RENAME TO transactions");
+        }
 
-        } catch (SQLException e) {
-            System.err.println("Error creating tables: " + e.getMessage());
-            throw e;
+        if (budgetsLegacy) {
+            dbManager.executeUpdate(budgetsTableSql("budgets_cents"));
+            dbManager.executeUpdate("""
+                INSERT INTO budgets_cents (id, category_id, amount_cents, period, start_date, end_date, created_at)
+                SELECT id, category_id, CAST(ROUND(amount * 100) AS INTEGER), period, start_date, end_date, created_at
+                FROM budgets
+            """);
+            dbManager.executeUpdate("DROP TABLE budgets");
+            dbManager.executeUpdate("ALTER TABLE budgets_cents RENAME TO budgets");
         }
     }
 
-    private static void insertSampleCategories() throws SQLException {
-        DatabaseManager dbManager = DatabaseManager.getInstance();
+    /**
+     * Rewrites dates stored by java.sql.Date (epoch milliseconds, or ISO text
+     * in hand-edited databases) as epoch days. Millisecond values were written
+     * at local midnight, so they are read back in local time. Rows already
+     * holding epoch days are left alone.
+     */
+    private static void migrateDatesToEpochDays(DatabaseManager dbManager) throws SQLException {
+        String[][] columns = {
+                {"transactions", "transaction_date"},
+                {"budgets", "start_date"},
+                {"budgets", "end_date"}
+        };
+
+        for (String[] column : columns) {
+            dbManager.executeUpdate("""
+                UPDATE %1$s SET %2$s = CASE
+                    WHEN typeof(%2$s) = 'integer' OR typeof(%2$s) = 'real'
+                        THEN CAST(julianday(date(%2$s / 1000, 'unixepoch', 'localtime')) - 2440587.5 AS INTEGER)
+                    ELSE CAST(julianday(date(%2$s)) - 2440587.5 AS INTEGER)
+                END
+                WHERE typeof(%2$s) = 'text' OR ABS(%2$s) > %3$d
+            """.formatted(column[0], column[1], MAX_EPOCH_DAY));
+        }
+    }
 
-        // Check if categories already exist
-        String checkSql = "SELECT COUNT(*) FROM categories";
+    private static void insertSampleCategories(DatabaseManager dbManager) throws SQLException {
+        // Databases from before versioning may already have categories
+        String checkSql = "SELECT EXISTS (SELECT 1 FROM categories)";
         try (PreparedStatement stmt = dbManager.prepareStatement(checkSql)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next() && rs.getInt(1) > 0) {
@@ -108,8 +225,6 @@ public class DatabaseInitializer {
         String insertSql = "INSERT INTO categories (name, parent_id, type) VALUES (?, ?, ?)";
 
         try (PreparedStatement stmt = dbManager.prepareStatement(insertSql)) {
-            dbManager.beginTransaction();
-
             // Income categories
             insertCategory(stmt, "Salary", null, "INCOME");
             insertCategory(stmt, "Freelance", null, "INCOME");
@@ -117,11 +232,6 @@ public class DatabaseInitializer {
             insertCategory(stmt, "Business Income", null, "INCOME");
             insertCategory(stmt, "Other Income", null, "INCOME");
 
-            dbManager.commitTransaction();
-
-            // Get parent IDs for subcategories
-            dbManager.beginTransaction();
-
             // Expense categories with subcategories
             Long foodId = insertCategory(stmt, "Food & Dining", null, "EXPENSE");
             insertCategory(stmt, "Restaurants", foodId, "EXPENSE");
@@ -167,13 +277,7 @@ public class DatabaseInitializer {
             insertCategory(stmt, "Gifts & Donations", null, "EXPENSE");
             insertCategory(stmt, "Other Expenses", null, "EXPENSE");
 
-            dbManager.commitTransaction();
             System.out.println("Sample categories inserted successfully.");
-
-        } catch (SQLException e) {
-            dbManager.rollbackTransaction();
-            System.err.println("Error inserting sample categories: " + e.getMessage());
-            throw e;
         }
     }
 
@@ -203,9 +307,13 @@ public class DatabaseInitializer {
             dbManager.beginTransaction();
 
             // Drop tables in reverse order due to foreign keys
+            dbManager.executeUpdate("DROP TABLE IF EXISTS " + FullTextSearch.TABLE);
+            dbManager.executeUpdate("DROP TABLE IF EXISTS " + DailyAggregates.TABLE);
             dbManager.executeUpdate("DROP TABLE IF EXISTS budgets");
             dbManager.executeUpdate("DROP TABLE IF EXISTS transactions");
             dbManager.executeUpdate("DROP TABLE IF EXISTS categories");
+            dbManager.executeUpdate("DROP TABLE IF EXISTS schema_migrations");
+            dbManager.executeUpdate("PRAGMA user_version = 0");
 
             dbManager.commitTransaction();
 
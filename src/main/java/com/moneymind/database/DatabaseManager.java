@@ -1,16 +1,32 @@
 package main.java.com.moneymind.database;
 
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import java.sql.*;
 import java.util.Properties;
 
 /**
- * Singleton Database Manager for SQLite operations
+ * Singleton Database Manager for SQLite operations.
+ * Connections come from a bounded pool: read-only connections for queries
+ * and one dedicated writer for inserts, updates and transactions.
  */
 public class DatabaseManager {
     private static DatabaseManager instance;
-    private Connection connection;
+    private ConnectionPool pool;
+    private WriteQueue writeQueue;
+    private volatile StorageProfile storageProfile = StorageProfile.BALANCED;
     private static final String DATABASE_URL = "jdbc:sqlite:data/moneymind.db";
 
+    // Pool settings
+    private static final int MAX_READERS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final long LEAK_THRESHOLD_MILLIS = 30_000;
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+    private static final int SQLITE_OPEN_READONLY = 0x00000001;
+
+    // Write transaction owned by the current thread, if any
+    private final ThreadLocal<ConnectionLease> transactionLease = new ThreadLocal<>();
+
     private DatabaseManager() {}
 
     public static synchronized DatabaseManager getInstance() {
@@ -20,8 +36,8 @@ public class DatabaseManager {
         return instance;
     }
 
-    public Connection connect() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+    public synchronized Connection connect() throws SQLException {
+        if (pool == null || pool.isClosed()) {
             try {
                 // Create data directory if it doesn't exist
                 java.io.File dataDir = new java.io.File("data");
@@ -29,79 +45,234 @@ public class DatabaseManager {
                     dataDir.mkdirs();
                 }
 
-                Properties props = new Properties();
-                props.setProperty("foreign_keys", "true");
-                connection = DriverManager.getConnection(DATABASE_URL, props);
+                pool = new ConnectionPool(this::openConnection, MAX_READERS,
+                        BORROW_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS);
+                pool.getWriterConnection();
 
-                System.out.println("Connected to SQLite database: " + DATABASE_URL);
+                System.out.println("Connected to SQLite database: " + DATABASE_URL
+                        + " (1 writer, up to " + MAX_READERS + " readers, "
+                        + storageProfile.getDisplayName() + " profile)");
             } catch (SQLException e) {
                 System.err.println("Error connecting to database: " + e.getMessage());
                 throw e;
             }
         }
-        return connection;
+        return pool.getWriterConnection();
     }
 
-    public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    public synchronized void disconnect() {
+        if (writeQueue != null) {
+            writeQueue.shutdown();
+            System.out.println("Write queue stopped: " + writeQueue.getMetrics());
+            writeQueue = null;
+        }
+        if (pool != null && !pool.isClosed()) {
+            pool.close();
+            System.out.println("Database connection closed.");
         }
     }
 
+    /**
+     * Returns the shared writer connection without taking the writer lock, so
+     * its use can interleave with another thread's write transaction.
+     *
+     * @deprecated borrow a lease with {@link #borrowReadConnection()} or
+     * {@link #borrowWriteConnection()} instead
+     */
+    @Deprecated
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getPool().getWriterConnection();
+    }
+
+    // Connection leases
+    public ConnectionLease borrowReadConnection() throws SQLException {
+        ConnectionLease transaction = transactionLease.get();
+        if (transaction != null) {
+            // Reads inside a write transaction must see its uncommitted changes
+            return getPool().borrowWriter();
+        }
+        return getPool().borrowReader();
+    }
+
+    public ConnectionLease borrowWriteConnection() throws SQLException {
+        return getPool().borrowWriter();
+    }
+
+    public ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null || current.isClosed()) {
             connect();
+            current = pool;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the shared single-writer queue used for group-committed writes.
+     */
+    public synchronized WriteQueue getWriteQueue() throws SQLException {
+        if (writeQueue == null) {
+            writeQueue = new WriteQueue(getPool());
+        }
+        return writeQueue;
+    }
+
+    // Storage profiles
+    public StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+
+    /**
+     * Switches the storage profile. The writer is reconfigured immediately;
+     * read connections pick the new cache settings up when they are next opened.
+     */
+    public void setStorageProfile(StorageProfile profile) throws SQLException {
+        if (profile == storageProfile) {
+            return;
+        }
+
+        StorageProfile previous = storageProfile;
+        storageProfile = profile;
+        try (ConnectionLease lease = borrowWriteConnection()) {
+            profile.apply(lease.getConnection(), true);
+        }
+
+        // Fold the WAL back into the database once a bulk load is over
+        if (previous == StorageProfile.BULK_LOAD) {
+            checkpoint();
+        }
+        System.out.println("Storage profile set to " + profile.getDisplayName());
+    }
+
+    /**
+     * Switches to the given profile until the returned scope is closed, e.g.
+     * {@code try (ProfileScope scope = dbManager.useStorageProfile(StorageProfile.BULK_LOAD)) { ... }}
+     */
+    public ProfileScope useStorageProfile(StorageProfile profile) throws SQLException {
+        StorageProfile previous = storageProfile;
+        setStorageProfile(profile);
+        return new ProfileScope(previous);
+    }
+
+    public final class ProfileScope implements AutoCloseable {
+        private final StorageProfile previous;
+
+        private ProfileScope(StorageProfile previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            setStorageProfile(previous);
         }
-        return connection;
     }
 
     // Transaction management
     public void beginTransaction() throws SQLException {
-        getConnection().setAutoCommit(false);
+        if (transactionLease.get() != null) {
+            return; // Already inside a transaction on this thread
+        }
+
+        ConnectionLease lease = getPool().borrowWriter();
+        try {
+            lease.getConnection().setAutoCommit(false);
+        } catch (SQLException e) {
+            lease.close();
+            throw e;
+        }
+        transactionLease.set(lease);
     }
 
     public void commitTransaction() throws SQLException {
-        getConnection().commit();
-        getConnection().setAutoCommit(true);
+        ConnectionLease lease = transactionLease.get();
+        if (lease == null) {
+            return;
+        }
+
+        try {
+            lease.getConnection().commit();
+        } finally {
+            endTransaction(lease);
+        }
     }
 
     public void rollbackTransaction() throws SQLException {
-        getConnection().rollback();
-        getConnection().setAutoCommit(true);
+        ConnectionLease lease = transactionLease.get();
+        if (lease == null) {
+            return;
+        }
+
+        try {
+            lease.getConnection().rollback();
+        } finally {
+            endTransaction(lease);
+        }
+    }
+
+    public boolean isInTransaction() {
+        return transactionLease.get() != null;
     }
 
     // Utility methods
     public boolean tableExists(String tableName) throws SQLException {
         String sql = "SELECT name FROM sqlite_master WHERE type='table' AND name=?";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (PreparedStatement stmt = prepareReadStatement(sql)) {
+            stmt.setString(1, tableName);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next();
+        }
+    }
+
+    public boolean columnExists(String tableName, String columnName) throws SQLException {
+        String sql = "SELECT 1 FROM pragma_table_info(?) WHERE name = ?";
+        try (PreparedStatement stmt = prepareReadStatement(sql)) {
             stmt.setString(1, tableName);
+            stmt.setString(2, columnName);
             ResultSet rs = stmt.executeQuery();
             return rs.next();
         }
     }
 
-    public void executeUpdate(String sql) throws SQLException {
-        try (Statement stmt = getConnection().createStatement()) {
-            stmt.executeUpdate(sql);
+    public int executeUpdate(String sql) throws SQLException {
+        try (ConnectionLease lease = borrowWriteConnection();
+             Statement stmt = lease.getConnection().createStatement()) {
+            return stmt.executeUpdate(sql);
         }
     }
 
+    /**
+     * Runs a query on a read lease and returns a disconnected copy of its
+     * rows, so the connection goes back to the pool before this returns.
+     */
     public ResultSet executeQuery(String sql) throws SQLException {
-        Statement stmt = getConnection().createStatement();
-        return stmt.executeQuery(sql);
+        try (ConnectionLease lease = borrowReadConnection();
+             Statement stmt = lease.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+            rows.populate(rs);
+            return rows;
+        }
     }
 
+    /**
+     * Borrows a prepared statement on the writer connection. Compiled statements
+     * are cached per connection: closing the returned statement hands it back to
+     * the cache (and the writer back to the pool) instead of finalizing it.
+     */
     public PreparedStatement prepareStatement(String sql) throws SQLException {
-        return getConnection().prepareStatement(sql);
+        return prepareStatement(sql, Statement.NO_GENERATED_KEYS);
     }
 
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
-        return getConnection().prepareStatement(sql, autoGeneratedKeys);
+        return prepareOnLease(borrowWriteConnection(), sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Borrows a cached query statement on a pooled read-only connection so it can
+     * run alongside writes. Closing it returns both statement and connection.
+     */
+    public PreparedStatement prepareReadStatement(String sql) throws SQLException {
+        return prepareOnLease(borrowReadConnection(), sql, Statement.NO_GENERATED_KEYS);
     }
 
     // Database maintenance
@@ -110,14 +281,32 @@ public class DatabaseManager {
         System.out.println("Database vacuumed successfully.");
     }
 
+    public void checkpoint() throws SQLException {
+        try (ConnectionLease lease = borrowWriteConnection();
+             Statement stmt = lease.getConnection().createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        }
+    }
+
     public void analyze() throws SQLException {
         executeUpdate("ANALYZE");
         System.out.println("Database analyzed successfully.");
     }
 
+    /**
+     * Recomputes the daily_aggregates table from the raw transactions, for
+     * when it is suspected to have drifted.
+     */
+    public void rebuildDailyAggregates() throws SQLException {
+        long start = System.nanoTime();
+        DailyAggregates.rebuild(this);
+        System.out.printf("Daily aggregates rebuilt in %d ms.%n", (System.nanoTime() - start) / 1_000_000);
+    }
+
     public long getDatabaseSize() {
         java.io.File dbFile = new java.io.File("data/moneymind.db");
-        return dbFile.exists() ? dbFile.length() : 0;
+        java.io.File walFile = new java.io.File("data/moneymind.db-wal");
+        return (dbFile.exists() ? dbFile.length() : 0) + (walFile.exists() ? walFile.length() : 0);
     }
 
     public String getDatabaseInfo() throws SQLException {
@@ -126,13 +315,67 @@ public class DatabaseManager {
         info.append("Size: ").append(getDatabaseSize()).append(" bytes\n");
 
         String versionSql = "SELECT sqlite_version()";
-        try (PreparedStatement stmt = prepareStatement(versionSql)) {
+        try (PreparedStatement stmt = prepareReadStatement(versionSql)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
                 info.append("SQLite Version: ").append(rs.getString(1)).append("\n");
             }
         }
 
+        try (PreparedStatement stmt = prepareReadStatement("PRAGMA user_version")) {
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                info.append("Schema version: ").append(rs.getInt(1)).append("\n");
+            }
+        }
+
+        ConnectionPool current = getPool();
+        info.append("Read connections: ").append(current.getOpenReaderCount())
+                .append(" open / ").append(current.getMaxReaders()).append(" max\n");
+        info.append("Statement cache: ").append(current.getStatementCacheHits()).append(" hits / ")
+                .append(current.getStatementCacheMisses()).append(" misses\n");
+        info.append("Storage profile: ").append(storageProfile.getDisplayName()).append("\n");
+        info.append("Active leases: ").append(current.getActiveLeaseCount()).append("\n");
+
         return info.toString();
     }
+
+    // Private helper methods
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("foreign_keys", "true");
+        props.setProperty("busy_timeout", String.valueOf(BUSY_TIMEOUT_MILLIS));
+        if (readOnly) {
+            props.setProperty("open_mode", String.valueOf(SQLITE_OPEN_READONLY));
+        }
+
+        Connection connection = DriverManager.getConnection(DATABASE_URL, props);
+        try {
+            storageProfile.apply(connection, !readOnly);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private PreparedStatement prepareOnLease(ConnectionLease lease, String sql, int autoGeneratedKeys)
+            throws SQLException {
+        try {
+            StatementCache cache = getPool().getStatementCache(lease.getConnection());
+            return LeasedStatementHandler.borrow(lease, cache, sql, autoGeneratedKeys);
+        } catch (SQLException | RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    private void endTransaction(ConnectionLease lease) throws SQLException {
+        transactionLease.remove();
+        try {
+            lease.getConnection().setAutoCommit(true);
+        } finally {
+            lease.close();
+        }
+    }
 }
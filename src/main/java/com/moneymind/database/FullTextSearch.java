@@ -0,0 +1,144 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schema and query helpers for the FTS5 index over transaction descriptions
+ * and category names. The index is a standalone FTS5 table whose rowid is the
+ * transaction id; triggers on transactions and categories keep it in sync.
+ */
+public class FullTextSearch {
+    public static final String TABLE = "transactions_fts";
+
+    public static final String BACKFILL_SQL = """
+        INSERT INTO transactions_fts (rowid, description, category_name)
+        SELECT t.id, t.description, c.name
+        FROM transactions t
+        JOIN categories c ON t.category_id = c.id
+    """;
+
+    private FullTextSearch() {}
+
+    public static boolean isAvailable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT sqlite_compileoption_used('ENABLE_FTS5')")) {
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    /**
+     * Whether a failed query means the index itself is gone (table dropped or
+     * FTS5 not compiled in), as opposed to a busy database, a pool timeout or
+     * a bad MATCH expression, which only affect that one query.
+     */
+    public static boolean isIndexMissing(SQLException e) {
+        String message = e.getMessage();
+        if (message == null) {
+            return false;
+        }
+        message = message.toLowerCase();
+        return message.contains("no such table") || message.contains("no such module");
+    }
+
+    /**
+     * Statements that create the index table and its sync triggers.
+     */
+    public static List<String> schemaStatements() {
+        return List.of(
+                """
+                CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts5(
+                    description,
+                    category_name,
+                    tokenize = 'unicode61 remove_diacritics 2',
+                    prefix = '2 3'
+                )
+                """,
+                """
+                CREATE TRIGGER IF NOT EXISTS transactions_fts_insert AFTER INSERT ON transactions BEGIN
+                    INSERT INTO transactions_fts (rowid, description, category_name)
+                    VALUES (new.id, new.description, (SELECT name FROM categories WHERE id = new.category_id));
+                END
+                """,
+                """
+                CREATE TRIGGER IF NOT EXISTS transactions_fts_delete AFTER DELETE ON transactions BEGIN
+                    DELETE FROM transactions_fts WHERE rowid = old.id;
+                END
+                """,
+                """
+                CREATE TRIGGER IF NOT EXISTS transactions_fts_update
+                AFTER UPDATE OF description, category_id ON transactions BEGIN
+                    UPDATE transactions_fts
+                    SET description = new.description,
+                        category_name = (SELECT name FROM categories WHERE id = new.category_id)
+                    WHERE rowid = new.id;
+                END
+                """,
+                """
+                CREATE TRIGGER IF NOT EXISTS categories_fts_rename AFTER UPDATE OF name ON categories BEGIN
+                    UPDATE transactions_fts
+                    SET category_name = new.name
+                    WHERE rowid IN (SELECT id FROM transactions WHERE category_id = new.id);
+                END
+                """
+        );
+    }
+
+    /**
+     * Turns user input into an FTS5 MATCH expression. Double-quoted parts
+     * become phrase queries and every other word becomes a prefix query, all
+     * joined with AND. Every token is quoted, so operators and punctuation in
+     * the input cannot produce a syntax error.
+     *
+     * @return the MATCH expression, or null if the input has no searchable text
+     */
+    public static String toMatchQuery(String input) {
+        if (input == null) {
+            return null;
+        }
+
+        List<String> terms = new ArrayList<>();
+        boolean inPhrase = false;
+        StringBuilder current = new StringBuilder();
+
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i < input.length() ? input.charAt(i) : ' ';
+            boolean end = i == input.length();
+
+            if (c == '"' || end) {
+                addTerm(terms, current.toString(), inPhrase);
+                current.setLength(0);
+                inPhrase = !inPhrase && !end;
+            } else if (Character.isWhitespace(c) && !inPhrase) {
+                addTerm(terms, current.toString(), false);
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    private static void addTerm(List<String> terms, String text, boolean phrase) {
+        String trimmed = text.strip();
+        if (trimmed.isEmpty() || !containsLetterOrDigit(trimmed)) {
+            return;
+        }
+        String quoted = "\"" + trimmed.replace("\"", "\"\"") + "\"";
+        terms.add(phrase ? quoted : quoted + "*");
+    }
+
+    private static boolean containsLetterOrDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
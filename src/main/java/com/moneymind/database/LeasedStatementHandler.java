@@ -0,0 +1,98 @@
+package main.java.com.moneymind.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps a prepared statement borrowed from a connection's StatementCache.
+ * Closing the wrapper closes any result sets it produced, returns the compiled
+ * statement to the cache and releases the connection lease. This keeps the
+ * existing try-with-resources shape of the service code while statements are
+ * reused and connections come from the pool.
+ */
+class LeasedStatementHandler implements InvocationHandler {
+    private final PreparedStatement delegate;
+    private final ConnectionLease lease;
+    private final StatementCache cache;
+    private final String sql;
+    private final int autoGeneratedKeys;
+    private final List<ResultSet> openResults = new ArrayList<>(1);
+    private boolean closed;
+
+    private LeasedStatementHandler(PreparedStatement delegate, ConnectionLease lease,
+                                   StatementCache cache, String sql, int autoGeneratedKeys) {
+        this.delegate = delegate;
+        this.lease = lease;
+        this.cache = cache;
+        this.sql = sql;
+        this.autoGeneratedKeys = autoGeneratedKeys;
+    }
+
+    static PreparedStatement borrow(ConnectionLease lease, StatementCache cache,
+                                    String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement delegate = cache.checkout(sql, autoGeneratedKeys);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new LeasedStatementHandler(delegate, lease, cache, sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                giveBack();
+                return null;
+            case "isClosed":
+                return closed;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Cached[" + sql.strip() + "]";
+            default:
+                if (closed) {
+                    throw new SQLException("Statement has already been returned to the cache");
+                }
+                try {
+                    Object result = method.invoke(delegate, args);
+                    if (result instanceof ResultSet) {
+                        openResults.add((ResultSet) result);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+        }
+    }
+
+    private void giveBack() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            // An open result set keeps the statement mid-step and holds a read snapshot
+            for (ResultSet rs : openResults) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing result set: " + e.getMessage());
+                }
+            }
+            openResults.clear();
+            cache.checkin(sql, autoGeneratedKeys, delegate);
+        } finally {
+            lease.close();
+        }
+    }
+}
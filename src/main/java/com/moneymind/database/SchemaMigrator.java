@@ -0,0 +1,205 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Applies ordered schema migrations tracked by SQLite's PRAGMA user_version.
+ * Each migration runs in its own transaction together with the version bump,
+ * so a failed step leaves the database at the previous version. When the
+ * schema is already current, startup costs a single pragma read.
+ */
+public class SchemaMigrator {
+
+    /**
+     * A single schema change. Runs inside the migration transaction.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(DatabaseManager dbManager) throws SQLException;
+    }
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final boolean foreignKeysOff;
+        private final Step step;
+
+        /**
+         * @param foreignKeysOff run with foreign key enforcement disabled, as
+         *                       SQLite requires for table rebuilds
+         */
+        public Migration(int version, String description, boolean foreignKeysOff, Step step) {
+            this.version = version;
+            this.description = description;
+            this.foreignKeysOff = foreignKeysOff;
+            this.step = step;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public boolean isForeignKeysOff() { return foreignKeysOff; }
+    }
+
+    private final DatabaseManager dbManager;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(DatabaseManager dbManager, List<Migration> migrations) {
+        this.dbManager = dbManager;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+
+        for (int i = 0; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).getVersion() != i + 1) {
+                throw new IllegalArgumentException("Migrations must be numbered 1.." + this.migrations.size()
+                        + " without gaps, found version " + this.migrations.get(i).getVersion());
+            }
+        }
+    }
+
+    public int getLatestVersion() {
+        return migrations.size();
+    }
+
+    /**
+     * Brings the schema up to the latest version.
+     *
+     * @return the number of migrations applied
+     */
+    public int migrate() throws SQLException {
+        int current = getCurrentVersion();
+        int latest = getLatestVersion();
+
+        if (current == latest) {
+            return 0;
+        }
+        if (current > latest) {
+            System.err.println("Database schema version " + current
+                    + " is newer than this application supports (" + latest + ")");
+            return 0;
+        }
+
+        createHistoryTable();
+
+        long totalStart = System.nanoTime();
+        for (Migration migration : migrations.subList(current, latest)) {
+            apply(migration);
+        }
+        System.out.printf("Schema migrated from version %d to %d in %d ms.%n",
+                current, latest, (System.nanoTime() - totalStart) / 1_000_000);
+
+        return latest - current;
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement("PRAGMA user_version")) {
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Returns one line per applied migration with its recorded duration.
+     */
+    public List<String> getHistory() throws SQLException {
+        List<String> history = new ArrayList<>();
+        if (!dbManager.tableExists("schema_migrations")) {
+            return history;
+        }
+
+        String sql = "SELECT version, description, applied_at, duration_ms FROM schema_migrations ORDER BY version";
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                history.add(String.format("V%d %s (%s, %d ms)",
+                        rs.getInt("version"), rs.getString("description"),
+                        rs.getString("applied_at"), rs.getLong("duration_ms")));
+            }
+        }
+        return history;
+    }
+
+    // Private helper methods
+    private void apply(Migration migration) throws SQLException {
+        // Hold the writer for the whole step so the pragma and transaction share a connection
+        try (ConnectionLease lease = dbManager.borrowWriteConnection()) {
+            Connection connection = lease.getConnection();
+            if (migration.isForeignKeysOff()) {
+                setForeignKeys(connection, false);
+            }
+
+            long start = System.nanoTime();
+            try {
+                dbManager.beginTransaction();
+                migration.step.apply(dbManager);
+
+                if (migration.isForeignKeysOff()) {
+                    checkForeignKeys(connection, migration);
+                }
+
+                long durationMillis = (System.nanoTime() - start) / 1_000_000;
+                recordHistory(connection, migration, durationMillis);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("PRAGMA user_version = " + migration.getVersion());
+                }
+                dbManager.commitTransaction();
+
+                System.out.printf("Applied migration V%d (%s) in %d ms.%n",
+                        migration.getVersion(), migration.getDescription(), durationMillis);
+
+            } catch (SQLException | RuntimeException e) {
+                dbManager.rollbackTransaction();
+                System.err.println("Migration V" + migration.getVersion() + " failed: " + e.getMessage());
+                throw e;
+            } finally {
+                if (migration.isForeignKeysOff()) {
+                    setForeignKeys(connection, true);
+                }
+            }
+        }
+    }
+
+    private void createHistoryTable() throws SQLException {
+        dbManager.executeUpdate("""
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version INTEGER PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                duration_ms INTEGER NOT NULL
+            )
+        """);
+    }
+
+    private void recordHistory(Connection connection, Migration migration, long durationMillis) throws SQLException {
+        String sql = "INSERT OR REPLACE INTO schema_migrations (version, description, duration_ms) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setLong(3, durationMillis);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void checkForeignKeys(Connection connection, Migration migration) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+            if (rs.next()) {
+                throw new SQLException("Migration V" + migration.getVersion()
+                        + " left a dangling reference in table " + rs.getString(1));
+            }
+        }
+    }
+
+    private static void setForeignKeys(Connection connection, boolean enabled) throws SQLException {
+        // Has no effect inside a transaction, so this must run before begin and after commit
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = " + (enabled ? "ON" : "OFF"));
+        }
+    }
+}
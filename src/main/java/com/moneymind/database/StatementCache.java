@@ -0,0 +1,116 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for a single connection, keyed by SQL text.
+ * A statement is checked out while in use and checked back in when the caller
+ * closes it, so SQLite only parses and plans each hot query once per connection.
+ */
+public class StatementCache {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> idle;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static String key(String sql, int autoGeneratedKeys) {
+        return autoGeneratedKeys + "|" + sql;
+    }
+
+    /**
+     * Takes a cached statement for the SQL, or prepares a new one on a miss.
+     * The statement is owned by the caller until {@link #checkin} is called.
+     */
+    public synchronized PreparedStatement checkout(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement stmt = idle.remove(key(sql, autoGeneratedKeys));
+        if (stmt != null && !stmt.isClosed()) {
+            hits.incrementAndGet();
+            return stmt;
+        }
+
+        misses.incrementAndGet();
+        return connection.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Returns a statement to the cache. Parameters and any batch left queued
+     * by a failed caller are cleared first; a statement that cannot be reset
+     * is closed instead of cached. If an equivalent statement is already idle
+     * (the same SQL was checked out twice), the extra copy is closed.
+     */
+    public synchronized void checkin(String sql, int autoGeneratedKeys, PreparedStatement stmt) {
+        try {
+            if (stmt.isClosed()) {
+                return;
+            }
+            stmt.clearParameters();
+            stmt.clearBatch();
+        } catch (SQLException e) {
+            closeQuietly(stmt);
+            return;
+        }
+
+        String key = key(sql, autoGeneratedKeys);
+        if (idle.containsKey(key)) {
+            closeQuietly(stmt);
+        } else {
+            idle.put(key, stmt);
+        }
+    }
+
+    public synchronized void clear() {
+        for (PreparedStatement stmt : idle.values()) {
+            closeQuietly(stmt);
+        }
+        idle.clear();
+    }
+
+    // Statistics
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public int getCapacity() { return capacity; }
+
+    public synchronized int size() {
+        return idle.size();
+    }
+
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+}
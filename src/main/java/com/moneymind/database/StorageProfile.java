@@ -0,0 +1,80 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Named SQLite tuning profiles applied to every pooled connection when it opens.
+ * All profiles run in WAL mode so readers never block the writer; they differ
+ * in how often SQLite syncs, how much memory it may use for caching and how
+ * eagerly the WAL is checkpointed. Use StorageProfileBenchmark to re-measure
+ * the trade-offs on a given machine.
+ */
+public enum StorageProfile {
+    // Every commit is fsynced; smallest memory footprint
+    DURABLE("Durable", "FULL", 8 * 1024, 0L, "DEFAULT", 1000),
+
+    // Default: fsync at checkpoints only, which WAL keeps crash-safe for the application
+    BALANCED("Balanced", "NORMAL", 32 * 1024, 128L * 1024 * 1024, "MEMORY", 1000),
+
+    // For imports: no fsync, large cache, infrequent checkpoints
+    BULK_LOAD("Bulk load", "OFF", 128 * 1024, 256L * 1024 * 1024, "MEMORY", 10000);
+
+    private final String displayName;
+    private final String synchronous;
+    private final int cacheSizeKib;
+    private final long mmapSizeBytes;
+    private final String tempStore;
+    private final int walAutoCheckpointPages;
+
+    StorageProfile(String displayName, String synchronous, int cacheSizeKib, long mmapSizeBytes,
+                   String tempStore, int walAutoCheckpointPages) {
+        this.displayName = displayName;
+        this.synchronous = synchronous;
+        this.cacheSizeKib = cacheSizeKib;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStore = tempStore;
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+    }
+
+    public String getDisplayName() { return displayName; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSizeKib() { return cacheSizeKib; }
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+    public String getTempStore() { return tempStore; }
+    public int getWalAutoCheckpointPages() { return walAutoCheckpointPages; }
+
+    /**
+     * Applies this profile to an open connection. Journal mode and checkpoint
+     * settings only matter on the writer; read-only connections cannot change
+     * the journal mode and simply inherit WAL from the database file.
+     */
+    public void apply(Connection connection, boolean writer) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            if (writer) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = " + synchronous);
+                stmt.execute("PRAGMA wal_autocheckpoint = " + walAutoCheckpointPages);
+            }
+            // Negative cache_size is in KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public static StorageProfile fromName(String name) {
+        for (StorageProfile profile : values()) {
+            if (profile.name().equalsIgnoreCase(name) || profile.displayName.equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage profile: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
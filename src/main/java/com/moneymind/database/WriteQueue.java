@@ -0,0 +1,348 @@
+package main.java.com.moneymind.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-writer execution path with group commit.
+ * Callers submit write operations and get a future back; a dedicated thread
+ * collects pending operations and applies them in one SQLite transaction, so
+ * a burst of inserts pays for one fsync instead of one per row.
+ */
+public class WriteQueue {
+
+    /**
+     * How hard SQLite syncs when a batch commits.
+     */
+    public enum Durability {
+        FULL("FULL"),     // fsync on every commit, survives power loss
+        NORMAL("NORMAL"), // fsync at checkpoints, survives application crashes
+        OFF("OFF");       // no fsync, fastest, for bulk imports that can be redone
+
+        private final String pragmaValue;
+
+        Durability(String pragmaValue) {
+            this.pragmaValue = pragmaValue;
+        }
+
+        public String getPragmaValue() { return pragmaValue; }
+    }
+
+    /**
+     * A unit of work applied on the writer connection inside the batch transaction.
+     */
+    @FunctionalInterface
+    public interface WriteOperation<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    private static final int QUEUE_CAPACITY = 50_000;
+
+    private final ConnectionPool pool;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    private final Metrics metrics = new Metrics();
+
+    private volatile long flushIntervalMillis;
+    private volatile int maxBatchSize;
+    private volatile Durability durability;
+    private volatile boolean running = true;
+
+    public WriteQueue(ConnectionPool pool) {
+        this(pool, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_BATCH_SIZE, Durability.NORMAL);
+    }
+
+    public WriteQueue(ConnectionPool pool, long flushIntervalMillis, int maxBatchSize, Durability durability) {
+        this.pool = pool;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.durability = durability;
+
+        this.writerThread = new Thread(this::runWriter, "moneymind-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Submitting work
+    public <T> CompletableFuture<T> submit(WriteOperation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new SQLException("Write queue has been shut down"));
+            return future;
+        }
+
+        try {
+            queue.put(new PendingWrite<>(operation, future));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(new SQLException("Interrupted while queueing write", e));
+        }
+        return future;
+    }
+
+    public CompletableFuture<Integer> submitUpdate(String sql, Object... parameters) {
+        return submit(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    stmt.setObject(i + 1, parameters[i]);
+                }
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Blocks until every operation submitted before this call has committed.
+     */
+    public void flush() throws SQLException {
+        try {
+            submit(connection -> null).join();
+        } catch (RuntimeException e) {
+            throw new SQLException("Write queue flush failed", e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    // Configuration
+    public long getFlushIntervalMillis() { return flushIntervalMillis; }
+    public void setFlushIntervalMillis(long flushIntervalMillis) { this.flushIntervalMillis = Math.max(0, flushIntervalMillis); }
+
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = Math.max(1, maxBatchSize); }
+
+    public Durability getDurability() { return durability; }
+    public void setDurability(Durability durability) { this.durability = durability; }
+
+    public Metrics getMetrics() { return metrics; }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public void shutdown() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything still queued could not be written
+        PendingWrite<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new SQLException("Write queue shut down before the write ran"));
+        }
+    }
+
+    // Writer thread
+    private void runWriter() {
+        List<PendingWrite<?>> batch = new ArrayList<>();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown requested: drain what is already queued, then stop
+                queue.drainTo(batch, Math.max(0, maxBatchSize - batch.size()));
+            }
+
+            if (!batch.isEmpty()) {
+                applyBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingWrite<?>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        int limit = maxBatchSize;
+
+        while (batch.size() < limit) {
+            queue.drainTo(batch, limit - batch.size());
+            if (batch.size() >= limit) {
+                break;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+
+            PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void applyBatch(List<PendingWrite<?>> batch) {
+        long start = System.nanoTime();
+        List<PendingWrite<?>> succeeded = new ArrayList<>(batch.size());
+        int failed = 0;
+
+        try (ConnectionLease lease = pool.borrowWriter()) {
+            Connection connection = lease.getConnection();
+            String previousSync = applyDurability(connection);
+
+            try {
+                connection.setAutoCommit(false);
+                try (Statement savepoints = connection.createStatement()) {
+                    for (PendingWrite<?> pending : batch) {
+                        // A savepoint per operation keeps one bad write from failing its neighbours
+                        savepoints.execute("SAVEPOINT write_op");
+                        try {
+                            pending.run(connection);
+                            savepoints.execute("RELEASE write_op");
+                            succeeded.add(pending);
+                        } catch (SQLException | RuntimeException e) {
+                            savepoints.execute("ROLLBACK TO write_op");
+                            savepoints.execute("RELEASE write_op");
+                            pending.future.completeExceptionally(e);
+                            failed++;
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+                restoreDurability(connection, previousSync);
+            }
+
+            for (PendingWrite<?> pending : succeeded) {
+                pending.complete();
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error committing write batch: " + e.getMessage());
+            for (PendingWrite<?> pending : batch) {
+                if (pending.future.completeExceptionally(e)) {
+                    failed++;
+                }
+            }
+        }
+
+        metrics.recordBatch(batch.size(), failed, System.nanoTime() - start);
+    }
+
+    private String applyDurability(Connection connection) throws SQLException {
+        Durability target = durability;
+        String previous = null;
+        try (Statement stmt = connection.createStatement()) {
+            ResultSet rs = stmt.executeQuery("PRAGMA synchronous");
+            if (rs.next()) {
+                previous = rs.getString(1);
+            }
+            stmt.execute("PRAGMA synchronous = " + target.getPragmaValue());
+        }
+        return previous;
+    }
+
+    private void restoreDurability(Connection connection, String previous) {
+        if (previous == null) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA synchronous = " + previous);
+        } catch (SQLException e) {
+            System.err.println("Error restoring synchronous mode: " + e.getMessage());
+        }
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back write batch: " + e.getMessage());
+        }
+    }
+
+    private static class PendingWrite<T> {
+        final WriteOperation<T> operation;
+        final CompletableFuture<T> future;
+        T result;
+
+        PendingWrite(WriteOperation<T> operation, CompletableFuture<T> future) {
+            this.operation = operation;
+            this.future = future;
+        }
+
+        void run(Connection connection) throws SQLException {
+            result = operation.execute(connection);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Batch size and commit latency counters for the write queue.
+     */
+    public static class Metrics {
+        private final AtomicLong batchCount = new AtomicLong();
+        private final AtomicLong operationCount = new AtomicLong();
+        private final AtomicLong failedOperationCount = new AtomicLong();
+        private final AtomicLong maxBatchSize = new AtomicLong();
+        private final AtomicLong totalCommitNanos = new AtomicLong();
+        private final AtomicLong maxCommitNanos = new AtomicLong();
+        private volatile long lastCommitNanos;
+        private volatile int lastBatchSize;
+
+        void recordBatch(int size, int failed, long commitNanos) {
+            batchCount.incrementAndGet();
+            operationCount.addAndGet(size);
+            failedOperationCount.addAndGet(failed);
+            maxBatchSize.accumulateAndGet(size, Math::max);
+            totalCommitNanos.addAndGet(commitNanos);
+            maxCommitNanos.accumulateAndGet(commitNanos, Math::max);
+            lastCommitNanos = commitNanos;
+            lastBatchSize = size;
+        }
+
+        public long getBatchCount() { return batchCount.get(); }
+        public long getOperationCount() { return operationCount.get(); }
+        public long getFailedOperationCount() { return failedOperationCount.get(); }
+        public long getMaxBatchSize() { return maxBatchSize.get(); }
+        public int getLastBatchSize() { return lastBatchSize; }
+
+        public double getAverageBatchSize() {
+            long batches = batchCount.get();
+            return batches == 0 ? 0.0 : (double) operationCount.get() / batches;
+        }
+
+        public double getLastCommitMillis() { return lastCommitNanos / 1_000_000.0; }
+        public double getMaxCommitMillis() { return maxCommitNanos.get() / 1_000_000.0; }
+
+        public double getAverageCommitMillis() {
+            long batches = batchCount.get();
+            return batches == 0 ? 0.0 : totalCommitNanos.get() / 1_000_000.0 / batches;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("batches=%d ops=%d failed=%d avgBatch=%.1f maxBatch=%d avgCommit=%.2fms maxCommit=%.2fms",
+                    getBatchCount(), getOperationCount(), getFailedOperationCount(), getAverageBatchSize(),
+                    getMaxBatchSize(), getAverageCommitMillis(), getMaxCommitMillis());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package main.java.com.moneymind.datastructures;
+
+import main.java.com.moneymind.model.Budget;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Interval index of budgets over their (start date, end date) windows, one
+ * tree per category. Each tree is an AVL tree keyed on start date (then id)
+ * whose nodes also record the latest end date in their subtree, so point and
+ * overlap queries skip every subtree that ends too early: O(log n + k) for k
+ * matches. Dates are compared as epoch days.
+ *
+ * All methods are synchronized; the stored Budget objects are returned as is.
+ */
+public class BudgetIntervalIndex {
+    private Map<Long, Node> roots;
+    private Map<Long, Node> nodesById;
+
+    private static class Node {
+        final Budget budget;
+        final long categoryId;
+        final long start;
+        final long end;
+        final long id;
+        long maxEnd;
+        int height = 1;
+        Node left, right;
+
+        Node(Budget budget) {
+            this.budget = budget;
+            this.categoryId = budget.getCategoryId();
+            this.start = budget.getStartDate().toEpochDay();
+            this.end = budget.getEndDate().toEpochDay();
+            this.id = budget.getId();
+            this.maxEnd = end;
+        }
+
+        int compareTo(long otherStart, long otherId) {
+            int byStart = Long.compare(start, otherStart);
+            return byStart != 0 ? byStart : Long.compare(id, otherId);
+        }
+    }
+
+    public BudgetIntervalIndex() {
+        this.roots = new HashMap<>();
+        this.nodesById = new HashMap<>();
+    }
+
+    // Building and updates
+    public synchronized void build(List<Budget> budgets) {
+        clear();
+        for (Budget budget : budgets) {
+            insert(budget);
+        }
+    }
+
+    /**
+     * Adds a budget, replacing any entry with the same id. The budget must
+     * have an id, a category and both dates.
+     */
+    public synchronized void insert(Budget budget) {
+        if (budget.getId() == null || budget.getCategoryId() == null
+                || budget.getStartDate() == null || budget.getEndDate() == null) {
+            throw new IllegalArgumentException("Budget must be saved and have a category and period");
+        }
+        remove(budget.getId());
+
+        Node node = new Node(budget);
+        roots.put(node.categoryId, insertRec(roots.get(node.categoryId), node));
+        nodesById.put(node.id, node);
+    }
+
+    public synchronized boolean remove(Long budgetId) {
+        Node node = nodesById.remove(budgetId);
+        if (node == null) {
+            return false;
+        }
+        Node root = removeRec(roots.get(node.categoryId), node.start, node.id);
+        if (root == null) {
+            roots.remove(node.categoryId);
+        } else {
+            roots.put(node.categoryId, root);
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        roots.clear();
+        nodesById.clear();
+    }
+
+    // Queries
+    public synchronized Budget get(Long budgetId) {
+        Node node = nodesById.get(budgetId);
+        return node != null ? node.budget : null;
+    }
+
+    public synchronized int size() {
+        return nodesById.size();
+    }
+
+    public synchronized List<Budget> getAll() {
+        List<Budget> result = new ArrayList<>(nodesById.size());
+        for (Node node : nodesById.values()) {
+            result.add(node.budget);
+        }
+        return result;
+    }
+
+    /**
+     * Budgets of the category whose window contains the date, by start date.
+     */
+    public synchronized List<Budget> findCovering(Long categoryId, LocalDate date) {
+        return findOverlapping(categoryId, date, date);
+    }
+
+    /**
+     * Budgets of the category whose window shares at least one day with the
+     * given period, by start date.
+     */
+    public synchronized List<Budget> findOverlapping(Long categoryId, LocalDate startDate, LocalDate endDate) {
+        List<Budget> result = new ArrayList<>();
+        collectOverlapping(roots.get(categoryId), startDate.toEpochDay(), endDate.toEpochDay(), result);
+        return result;
+    }
+
+    public synchronized boolean hasOverlap(Long categoryId, LocalDate startDate, LocalDate endDate,
+                                           Long excludeBudgetId) {
+        long exclude = excludeBudgetId != null ? excludeBudgetId : Long.MIN_VALUE;
+        return anyOverlap(roots.get(categoryId), startDate.toEpochDay(), endDate.toEpochDay(), exclude);
+    }
+
+    // Interval search
+    private void collectOverlapping(Node node, long start, long end, List<Budget> result) {
+        if (node == null || node.maxEnd < start) {
+            return; // Nothing in this subtree reaches the query
+        }
+        collectOverlapping(node.left, start, end, result);
+        if (node.start <= end && node.end >= start) {
+            result.add(node.budget);
+        }
+        if (node.start <= end) {
+            collectOverlapping(node.right, start, end, result);
+        }
+    }
+
+    private boolean anyOverlap(Node node, long start, long end, long excludeId) {
+        if (node == null || node.maxEnd < start) {
+            return false;
+        }
+        if (node.start <= end && node.end >= start && node.id != excludeId) {
+            return true;
+        }
+        return anyOverlap(node.left, start, end, excludeId)
+                || (node.start <= end && anyOverlap(node.right, start, end, excludeId));
+    }
+
+    // AVL maintenance
+    private Node insertRec(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (newNode.compareTo(node.start, node.id) < 0) {
+            node.left = insertRec(node.left, newNode);
+        } else {
+            node.right = insertRec(node.right, newNode);
+        }
+        return rebalance(node);
+    }
+
+    private Node removeRec(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = node.compareTo(start, id);
+        if (cmp > 0) {
+            node.left = removeRec(node.left, start, id);
+        } else if (cmp < 0) {
+            node.right = removeRec(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with the smallest node of the right subtree
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeRec(node.right, successor.start, successor.id);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+
+    private int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+}
@@ -2,76 +2,296 @@ package main.java.com.moneymind.datastructures;
 
 import main.java.com.moneymind.model.Category;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
- * Binary Search Tree implementation for Category hierarchy
- * Supports efficiency searching, insertion, and traversal of categories
+ * Category hierarchy with a name index. The index is an AVL tree keyed on the
+ * case-insensitive name, so lookups stay O(log n) however the categories
+ * arrive (they are loaded sorted by name). Each node holds every category
+ * with that name, ordered by id, so the same name under two parents is kept.
+ * Searches and traversals are iterative.
+ *
+ * The hierarchy is also numbered in pre-order: each category gets an entry
+ * number and the exit number of the last category in its subtree, so
+ * ancestor and subtree questions are range checks and a subtree is one
+ * contiguous slice of {@link #getPreorder()}.
+ *
+ * Single categories can be added, renamed, moved and removed in place; the
+ * name index and parent/child links are patched at once, and the numbering
+ * is redone in memory on the next read, so a run of changes renumbers only
+ * once. All methods are synchronized.
  */
 
 public class CategoryTree {
+    private static final Comparator<String> NAME_ORDER = String.CASE_INSENSITIVE_ORDER;
+    private static final Comparator<Category> BY_ID = Comparator.comparing(Category::getId);
+
     private TreeNode root;
     private Map<Long, Category> categoryMap;
+    private Map<Long, String> indexedNames;
+    private List<Category> preorder;
+    private boolean numberingStale;
+    private CategoryTrie completions;
 
-    private class TreeNode {
-        Category category;
+    private static class TreeNode {
+        final String name;
+        final List<Category> categories = new ArrayList<>(1);
         TreeNode left, right;
+        int height = 1;
 
-        TreeNode(Category category) {
-            this.category = category;
+        TreeNode(String name) {
+            this.name = name;
         }
     }
 
     public CategoryTree() {
         this.categoryMap = new HashMap<>();
+        this.indexedNames = new HashMap<>();
+        this.preorder = new ArrayList<>();
     }
 
     // Public methods
-    public void insert(Category category) {
-        root = insertRec(root, category);
-        categoryMap.put(category.getId(), category);
+
+    /**
+     * Adds a category under its parent, if the parent is in the tree. An
+     * entry with the same id is replaced and its subcategories move to the
+     * new object.
+     */
+    public synchronized void insert(Category category) {
+        List<Category> children = new ArrayList<>();
+        Category existing = categoryMap.get(category.getId());
+        if (existing != null && existing != category) {
+            children.addAll(existing.getChildren());
+            detach(existing);
+        } else if (existing == category) {
+            unindex(category);
+            unlinkFromParent(category);
+        }
+
+        index(category);
+        linkToParent(category, category.getParentId());
+        for (Category child : children) {
+            category.addChild(child);
+        }
+        numberingStale = true;
     }
 
-    public Category search(Long id) {
+    /**
+     * Removes a single category. Its subcategories stay in the tree and are
+     * numbered as roots until they are moved or removed.
+     */
+    public synchronized boolean remove(Long id) {
+        Category category = categoryMap.get(id);
+        if (category == null) {
+            return false;
+        }
+        detach(category);
+        numberingStale = true;
+        return true;
+    }
+
+    /**
+     * Removes a category together with all of its descendants and returns
+     * them, parents first.
+     */
+    public synchronized List<Category> removeSubtree(Long id) {
+        List<Category> subtree = getSubtree(id);
+        if (subtree.isEmpty()) {
+            return subtree;
+        }
+        unlinkFromParent(subtree.get(0));
+        for (Category category : subtree) {
+            unindex(category);
+            categoryMap.remove(category.getId());
+        }
+        numberingStale = true;
+        return subtree;
+    }
+
+    /**
+     * Applies the name, type and parent of the given category to the tree's
+     * entry with the same id, which may be the same object already edited in
+     * place. Returns false when the id is not in the tree.
+     *
+     * @throws IllegalArgumentException if the new parent is the category
+     *         itself or one of its descendants
+     */
+    public synchronized boolean update(Category changed) {
+        Category category = categoryMap.get(changed.getId());
+        if (category == null) {
+            return false;
+        }
+        Long newParentId = changed.getParentId();
+        if (newParentId != null && isInSubtree(category.getId(), newParentId)) {
+            throw new IllegalArgumentException("A category cannot be moved under itself or its subcategories");
+        }
+
+        category.setType(changed.getType());
+        if (!changed.getName().equals(indexedNames.get(category.getId()))) {
+            unindex(category);
+            category.setName(changed.getName());
+            index(category);
+        }
+
+        Category currentParent = category.getParent();
+        Long currentParentId = currentParent != null ? currentParent.getId() : null;
+        if (!Objects.equals(currentParentId, newParentId) || !Objects.equals(category.getParentId(), newParentId)) {
+            unlinkFromParent(category);
+            linkToParent(category, newParentId);
+        }
+
+        numberingStale = true;
+        return true;
+    }
+
+    public synchronized void rename(Long id, String name) {
+        Category category = categoryMap.get(id);
+        if (category != null) {
+            Category changed = copyOf(category);
+            changed.setName(name);
+            update(changed);
+        }
+    }
+
+    public synchronized void move(Long id, Long newParentId) {
+        Category category = categoryMap.get(id);
+        if (category != null) {
+            Category changed = copyOf(category);
+            changed.setParentId(newParentId);
+            update(changed);
+        }
+    }
+
+    /**
+     * A summary of the tree's contents: the category count and an
+     * order-independent hash of every category's id, parent, name and type.
+     * Compared with the same figures from the categories table to detect a
+     * tree that has drifted from the database, including renames.
+     */
+    public synchronized long[] fingerprint() {
+        long[] sums = new long[2];
+        for (Category category : categoryMap.values()) {
+            sums[0]++;
+            sums[1] += rowHash(category.getId(), category.getParentId(),
+                    category.getName(), category.getType().name());
+        }
+        return sums;
+    }
+
+    /**
+     * One category's contribution to {@link #fingerprint()}: a 64-bit FNV-1a
+     * hash of its name mixed with its id, parent id and type name.
+     */
+    public static long rowHash(long id, Long parentId, String name, String type) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= type.hashCode();
+        hash = hash * 31 + id;
+        hash = hash * 31 + (parentId != null ? parentId : 0);
+        // Finalize so that nearby ids don't produce nearby sums
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public synchronized Category search(Long id) {
+        ensureNumbered();
         return categoryMap.get(id);
     }
 
-    public Category searchByName(String name) {
-        return searchByNameRec(root, name);
+    /**
+     * The category with this name, ignoring case. When several categories
+     * share the name, the one with the lowest id.
+     */
+    public synchronized Category searchByName(String name) {
+        ensureNumbered();
+        TreeNode node = findNode(name);
+        return node != null ? node.categories.get(0) : null;
     }
 
-    public List<Category> getInOrder() {
-        List<Category> result = new ArrayList<>();
-        inOrderRec(root, result);
+    /**
+     * Every category with this name, ignoring case, by id.
+     */
+    public synchronized List<Category> searchAllByName(String name) {
+        ensureNumbered();
+        TreeNode node = findNode(name);
+        return node != null ? new ArrayList<>(node.categories) : new ArrayList<>();
+    }
+
+    /**
+     * All categories by name, then id.
+     */
+    public synchronized List<Category> getInOrder() {
+        ensureNumbered();
+        return collectInOrder();
+    }
+
+    private List<Category> collectInOrder() {
+        List<Category> result = new ArrayList<>(categoryMap.size());
+        Deque<TreeNode> stack = new ArrayDeque<>();
+        TreeNode node = root;
+
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.addAll(node.categories);
+            node = node.right;
+        }
         return result;
     }
 
-    public List<Category> getByType(Category.CategoryType type) {
+    public synchronized List<Category> getByType(Category.CategoryType type) {
+        ensureNumbered();
         List<Category> result = new ArrayList<>();
-        filterByType(root, type, result);
+        for (Category category : getInOrder()) {
+            if (category.getType() == type) {
+                result.add(category);
+            }
+        }
         return result;
     }
 
-    public List<Category> getRootCategories() {
+    public synchronized List<Category> getRootCategories() {
+        ensureNumbered();
         List<Category> roots = new ArrayList<>();
-        for (Category category : categoryMap.values()) {
+        for (Category category : getInOrder()) {
             if (category.isRoot()) {
                 roots.add(category);
             }
         }
-        roots.sort(Comparator.comparing(Category::getName));
         return roots;
     }
 
-    public void buildHierarchy(List<Category> categories) {
+    public synchronized void buildHierarchy(List<Category> categories) {
         // Clear existing data
         root = null;
         categoryMap.clear();
+        indexedNames.clear();
 
-        // First pass: add all categories to map
+        // First pass: add all categories to map and build a balanced index from the sorted names
         for (Category category : categories) {
             categoryMap.put(category.getId(), category);
-            root = insertRec(root, category);
+            indexedNames.put(category.getId(), category.getName());
         }
+        List<Category> sorted = new ArrayList<>(categoryMap.values());
+        sorted.sort(Comparator.comparing(Category::getName, NAME_ORDER).thenComparing(BY_ID));
+
+        List<TreeNode> nodes = new ArrayList<>();
+        for (Category category : sorted) {
+            TreeNode last = nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+            if (last == null || NAME_ORDER.compare(last.name, category.getName()) != 0) {
+                last = new TreeNode(category.getName());
+                nodes.add(last);
+            }
+            last.categories.add(category);
+        }
+        root = buildBalanced(nodes, 0, nodes.size() - 1);
 
         // Second pass: build parent-child relationships
         for (Category category : categories) {
@@ -83,73 +303,407 @@ public class CategoryTree {
                 }
             }
         }
+
+        numberHierarchy();
     }
 
-    public List<Category> searchByPattern(String pattern) {
-        List<Category> results = new ArrayList<>();
-        String lowerPattern = pattern.toLowerCase();
+    // Hierarchy queries, answered from the pre-order numbering
 
-        for (Category category : categoryMap.values()) {
-            if (category.getName().toLowerCase().contains(lowerPattern)) {
-                results.add(category);
+    /**
+     * Categories in pre-order: each parent followed by its subtree, roots and
+     * siblings by name.
+     */
+    public synchronized List<Category> getPreorder() {
+        ensureNumbered();
+        return Collections.unmodifiableList(preorder);
+    }
+
+    /**
+     * Pre-order number of the category, or -1 if it is not in the tree.
+     */
+    public synchronized int getPreorderIndex(Long categoryId) {
+        ensureNumbered();
+        Category category = categoryMap.get(categoryId);
+        return category != null ? category.getEntry() : -1;
+    }
+
+    /**
+     * Whether ancestorId is a strict ancestor of descendantId.
+     */
+    public synchronized boolean isAncestor(Long ancestorId, Long descendantId) {
+        ensureNumbered();
+        Category ancestor = categoryMap.get(ancestorId);
+        Category descendant = categoryMap.get(descendantId);
+        return ancestor != null && descendant != null && ancestor.isNumbered() && descendant.isNumbered()
+                && ancestor.getEntry() < descendant.getEntry() && descendant.getEntry() <= ancestor.getExit();
+    }
+
+    /**
+     * Whether categoryId is rootId or one of its descendants.
+     */
+    public synchronized boolean isInSubtree(Long rootId, Long categoryId) {
+        ensureNumbered();
+        return rootId.equals(categoryId) ? categoryMap.containsKey(rootId) : isAncestor(rootId, categoryId);
+    }
+
+    /**
+     * The category followed by all of its descendants, in pre-order.
+     */
+    public synchronized List<Category> getSubtree(Long categoryId) {
+        ensureNumbered();
+        Category category = categoryMap.get(categoryId);
+        if (category == null || !category.isNumbered()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(preorder.subList(category.getEntry(), category.getExit() + 1));
+    }
+
+    public synchronized List<Category> getDescendants(Long categoryId) {
+        List<Category> subtree = getSubtree(categoryId);
+        return subtree.isEmpty() ? subtree : new ArrayList<>(subtree.subList(1, subtree.size()));
+    }
+
+    public synchronized List<Long> getSubtreeIds(Long categoryId) {
+        List<Long> ids = new ArrayList<>();
+        for (Category category : getSubtree(categoryId)) {
+            ids.add(category.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Rolls per-category values up the hierarchy: the result maps every
+     * category in the tree to its own value plus those of all descendants.
+     * One bottom-up pass over the pre-order, since each category is numbered
+     * after its parent. Values for categories not in the tree are ignored.
+     */
+    public synchronized Map<Long, Long> rollUp(Map<Long, Long> valuesByCategory) {
+        return rollUp(List.of(valuesByCategory)).getTotals(0);
+    }
+
+    /**
+     * Rolls up several sets of values over one snapshot of the hierarchy.
+     * The result also carries the pre-order it was computed from, so callers
+     * walking the rows see exactly the categories that were rolled up even
+     * if the tree changes in between.
+     */
+    public synchronized RollUp rollUp(List<Map<Long, Long>> valueSets) {
+        ensureNumbered();
+        List<Map<Long, Long>> totalsBySet = new ArrayList<>(valueSets.size());
+        for (Map<Long, Long> valuesByCategory : valueSets) {
+            long[] totals = new long[preorder.size()];
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = valuesByCategory.getOrDefault(preorder.get(i).getId(), 0L);
+            }
+            for (int i = totals.length - 1; i > 0; i--) {
+                Category parent = preorder.get(i).getParent();
+                if (parent != null && parent.isNumbered() && categoryMap.get(parent.getId()) == parent) {
+                    totals[parent.getEntry()] += totals[i];
+                }
+            }
+
+            Map<Long, Long> result = new HashMap<>(preorder.size() * 2);
+            for (int i = 0; i < totals.length; i++) {
+                result.put(preorder.get(i).getId(), totals[i]);
             }
+            totalsBySet.add(result);
+        }
+        return new RollUp(Collections.unmodifiableList(preorder), totalsBySet);
+    }
+
+    /**
+     * Subtree totals from {@link #rollUp(List)} together with the pre-order
+     * they were computed over.
+     */
+    public static class RollUp {
+        private final List<Category> preorder;
+        private final List<Map<Long, Long>> totals;
+
+        private RollUp(List<Category> preorder, List<Map<Long, Long>> totals) {
+            this.preorder = preorder;
+            this.totals = totals;
         }
 
-        results.sort(Comparator.comparing(Category::getName));
-        return results;
+        public List<Category> getPreorder() {
+            return preorder;
+        }
+
+        /**
+         * Subtree totals for the value set at this position, keyed by
+         * category id; every category in the pre-order has an entry.
+         */
+        public Map<Long, Long> getTotals(int valueSet) {
+            return totals.get(valueSet);
+        }
+    }
+
+    /**
+     * Categories whose name, a word of the name or the full path starts with
+     * the pattern, best match first.
+     */
+    public synchronized List<Category> searchByPattern(String pattern) {
+        return complete(pattern, Integer.MAX_VALUE, category -> true);
+    }
+
+    /**
+     * Ranked autocomplete over names, name words and full paths; see
+     * CategoryTrie. The trie is rebuilt on the first lookup after a change.
+     */
+    public synchronized List<Category> complete(String prefix, int limit, Predicate<Category> filter) {
+        ensureNumbered();
+        if (completions == null) {
+            completions = new CategoryTrie();
+            completions.addAll(preorder);
+        }
+        return completions.complete(prefix, limit, filter);
     }
 
     // Private helper methods
+    private void index(Category category) {
+        root = insertRec(root, category);
+        categoryMap.put(category.getId(), category);
+        indexedNames.put(category.getId(), category.getName());
+    }
+
+    private void unindex(Category category) {
+        String name = indexedNames.remove(category.getId());
+        if (name != null) {
+            root = removeRec(root, name, category.getId());
+        }
+    }
+
+    // Takes a category out of the map, the name index and its parent's children
+    private void detach(Category category) {
+        unindex(category);
+        categoryMap.remove(category.getId());
+        unlinkFromParent(category);
+        for (Category child : new ArrayList<>(category.getChildren())) {
+            child.setParent(null); // Keeps its parent id, like a category whose parent is missing
+        }
+        category.getChildren().clear();
+    }
+
+    private void unlinkFromParent(Category category) {
+        Category parent = category.getParent();
+        if (parent != null) {
+            parent.getChildren().remove(category);
+            category.setParent(null);
+        }
+    }
+
+    private void linkToParent(Category category, Long parentId) {
+        Category parent = parentId != null ? categoryMap.get(parentId) : null;
+        if (parent != null) {
+            parent.addChild(category);
+            category.setParent(parent);
+        } else {
+            category.setParentId(parentId);
+        }
+    }
+
+    private static Category copyOf(Category category) {
+        Category copy = new Category(category.getName(), category.getType(), category.getParentId());
+        copy.setId(category.getId());
+        return copy;
+    }
+
+    /**
+     * Numbers the categories in pre-order with an explicit stack, recording
+     * each one's entry and exit numbers, level and full path. Categories
+     * whose parent is missing are numbered as roots.
+     */
+    private void ensureNumbered() {
+        if (numberingStale) {
+            numberHierarchy();
+        }
+    }
+
+    private void numberHierarchy() {
+        List<Category> ordered = new ArrayList<>(categoryMap.size());
+        Deque<Category> stack = new ArrayDeque<>();
+        Deque<Category> open = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+
+        List<Category> roots = new ArrayList<>();
+        for (Category category : collectInOrder()) {
+            category.clearTreePosition();
+            if (category.getParent() == null || categoryMap.get(category.getParent().getId()) != category.getParent()) {
+                roots.add(category);
+            }
+        }
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(roots.get(i));
+        }
+
+        while (!stack.isEmpty()) {
+            Category category = stack.pop();
+            if (!visited.add(category.getId())) {
+                continue; // Guards against a cycle in the parent links
+            }
+            // Close every open subtree this category is not part of
+            while (!open.isEmpty() && open.peek() != category.getParent()) {
+                close(open.pop(), ordered.size() - 1);
+            }
+
+            Category parent = open.peek();
+            int level = parent != null ? parent.getLevel() + 1 : 0;
+            String path = parent != null ? parent.getFullPath() + " > " + category.getName() : category.getName();
+            category.setTreePosition(ordered.size(), -1, level, path);
+            ordered.add(category);
+            open.push(category);
+
+            List<Category> children = new ArrayList<>(category.getChildren());
+            children.sort(Comparator.comparing(Category::getName, NAME_ORDER).thenComparing(BY_ID));
+            for (int i = children.size() - 1; i >= 0; i--) {
+                if (categoryMap.get(children.get(i).getId()) == children.get(i)) {
+                    stack.push(children.get(i));
+                }
+            }
+        }
+        while (!open.isEmpty()) {
+            close(open.pop(), ordered.size() - 1);
+        }
+
+        preorder = ordered;
+        numberingStale = false;
+        completions = null; // Names or paths may have changed
+    }
+
+    private void close(Category category, int exit) {
+        category.setTreePosition(category.getEntry(), exit, category.getLevel(), category.getFullPath());
+    }
+
+    private TreeNode findNode(String name) {
+        TreeNode node = root;
+        while (node != null) {
+            int comparison = NAME_ORDER.compare(name, node.name);
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    // Depth is O(log n), so recursion here is bounded
+    private TreeNode buildBalanced(List<TreeNode> nodes, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        TreeNode node = nodes.get(mid);
+        node.left = buildBalanced(nodes, from, mid - 1);
+        node.right = buildBalanced(nodes, mid + 1, to);
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        return node;
+    }
+
     private TreeNode insertRec(TreeNode node, Category category) {
         if (node == null) {
-            return new TreeNode(category);
+            TreeNode created = new TreeNode(category.getName());
+            created.categories.add(category);
+            return created;
         }
 
-        int comparison = category.getName().compareToIgnoreCase(node.category.getName());
+        int comparison = NAME_ORDER.compare(category.getName(), node.name);
         if (comparison < 0) {
             node.left = insertRec(node.left, category);
         } else if (comparison > 0) {
             node.right = insertRec(node.right, category);
+        } else {
+            int index = Collections.binarySearch(node.categories, category, BY_ID);
+            node.categories.add(index < 0 ? -index - 1 : index, category);
+            return node;
         }
 
-        return node;
+        return rebalance(node);
     }
 
-    private Category searchByNameRec(TreeNode node, String name) {
+    private TreeNode removeRec(TreeNode node, String name, Long id) {
         if (node == null) {
             return null;
         }
 
-        int comparison = name.compareToIgnoreCase(node.category.getName());
-        if (comparison == 0) {
-            return node.category;
-        } else if (comparison < 0) {
-            return searchByNameRec(node.left, name);
+        int comparison = NAME_ORDER.compare(name, node.name);
+        if (comparison < 0) {
+            node.left = removeRec(node.left, name, id);
+        } else if (comparison > 0) {
+            node.right = removeRec(node.right, name, id);
         } else {
-            return searchByNameRec(node.right, name);
+            node.categories.removeIf(c -> c.getId().equals(id));
+            if (!node.categories.isEmpty()) {
+                return node;
+            }
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with the smallest node of the right subtree
+            TreeNode successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
         }
+
+        return rebalance(node);
     }
 
-    private void inOrderRec(TreeNode node, List<Category> result) {
-        if (node != null) {
-            inOrderRec(node.left, result);
-            result.add(node.category);
-            inOrderRec(node.right, result);
+    private TreeNode removeMin(TreeNode node) {
+        if (node.left == null) {
+            return node.right;
         }
+        node.left = removeMin(node.left);
+        return rebalance(node);
     }
 
-    private void filterByType(TreeNode node, Category.CategoryType type, List<Category> result) {
-        if (node != null) {
-            if (node.category.getType() == type) {
-                result.add(node.category);
+    private TreeNode rebalance(TreeNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
             }
-            filterByType(node.left, type, result);
-            filterByType(node.right, type, result);
+            return rotateLeft(node);
         }
+        return node;
+    }
+
+    private TreeNode rotateRight(TreeNode node) {
+        TreeNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        pivot.height = 1 + Math.max(height(pivot.left), height(pivot.right));
+        return pivot;
+    }
+
+    private TreeNode rotateLeft(TreeNode node) {
+        TreeNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        pivot.height = 1 + Math.max(height(pivot.left), height(pivot.right));
+        return pivot;
+    }
+
+    private int height(TreeNode node) {
+        return node != null ? node.height : 0;
     }
 
     // Tree traversal methods for different use cases
-    public void printTree() {
+    public synchronized void printTree() {
         System.out.println("Category Tree Structure:");
         printTreeRec(root, 0);
     }
@@ -157,21 +711,30 @@ public class CategoryTree {
     private void printTreeRec(TreeNode node, int depth) {
         if (node != null) {
             printTreeRec(node.right, depth + 1);
-            System.out.println("  ".repeat(depth) + node.category.getName());
+            for (Category category : node.categories) {
+                System.out.println("  ".repeat(depth) + category.getName());
+            }
             printTreeRec(node.left, depth + 1);
         }
     }
 
-    public int getSize() {
+    public synchronized int getHeight() {
+        return height(root);
+    }
+
+    public synchronized int getSize() {
         return categoryMap.size();
     }
 
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return categoryMap.isEmpty();
     }
 
-    public void clear() {
+    public synchronized void clear() {
         root = null;
         categoryMap.clear();
+        indexedNames.clear();
+        preorder = new ArrayList<>();
+        completions = null;
     }
 }
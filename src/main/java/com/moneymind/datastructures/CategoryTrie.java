@@ -0,0 +1,200 @@
+package main.java.com.moneymind.datastructures;
+
+import main.java.com.moneymind.model.Category;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Prefix trie over category names for autocomplete. Each category is indexed
+ * under its whole name, each word of its name and its full path, all
+ * lowercased, so "din" finds "Food & Dining" and "food > re" finds
+ * "Restaurants" under it. Each node also keeps the few best-ranked
+ * categories of its subtrie, filled in as keys are added, so a short
+ * lookup such as the type-ahead's reads its answer off the node at the end
+ * of the prefix. Only a lookup that needs more (a large limit, or a filter
+ * that rejects those) walks the subtrie.
+ *
+ * Completions are ranked by how they matched (see {@link MatchKind}), then by
+ * name length and name.
+ */
+public class CategoryTrie {
+
+    /**
+     * How a category matched, best first.
+     */
+    public enum MatchKind {
+        NAME, NAME_WORD, PATH
+    }
+
+    // Matches kept per node for lookups that need no walk
+    private static final int TOP_SIZE = 8;
+
+    private static final Comparator<Match> RANK = Comparator.<Match, MatchKind>comparing(m -> m.kind)
+            .thenComparingInt(m -> m.category.getName().length())
+            .thenComparing(m -> m.category.getName(), String.CASE_INSENSITIVE_ORDER);
+
+    private static class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        List<Match> matches;
+        // Best-ranked matches in this subtrie, one per category, at most TOP_SIZE
+        final List<Match> top = new ArrayList<>(1);
+    }
+
+    private static class Match {
+        final Category category;
+        final MatchKind kind;
+
+        Match(Category category, MatchKind kind) {
+            this.category = category;
+            this.kind = kind;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public CategoryTrie() {
+        this.root = new Node();
+    }
+
+    public void add(Category category) {
+        String name = category.getName().toLowerCase();
+        addKey(name, category, MatchKind.NAME);
+        for (String word : name.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !word.equals(name)) {
+                addKey(word, category, MatchKind.NAME_WORD);
+            }
+        }
+        String path = category.getFullPath().toLowerCase();
+        if (!path.equals(name)) {
+            addKey(path, category, MatchKind.PATH);
+        }
+        size++;
+    }
+
+    public void addAll(Collection<Category> categories) {
+        for (Category category : categories) {
+            add(category);
+        }
+    }
+
+    /**
+     * Categories with a name, name word or full path starting with the
+     * prefix (ignoring case), best match first, at most limit of them.
+     */
+    public List<Category> complete(String prefix, int limit) {
+        return complete(prefix, limit, category -> true);
+    }
+
+    public List<Category> complete(String prefix, int limit, Predicate<Category> filter) {
+        Node node = root;
+        String key = prefix.trim().toLowerCase();
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null || key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // The best few matches are kept at the node; they answer most lookups outright
+        List<Category> result = new ArrayList<>();
+        for (Match match : node.top) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (filter.test(match.category)) {
+                result.add(match.category);
+            }
+        }
+        if (result.size() == limit || node.top.size() < TOP_SIZE) {
+            return result; // Enough matches, or every category under the prefix
+        }
+
+        // Best match kind per category under the prefix
+        Map<Long, Match> best = new HashMap<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node current = stack.pop();
+            if (current.matches != null) {
+                for (Match match : current.matches) {
+                    Match previous = best.get(match.category.getId());
+                    if ((previous == null || match.kind.compareTo(previous.kind) < 0) && filter.test(match.category)) {
+                        best.put(match.category.getId(), match);
+                    }
+                }
+            }
+            for (Node child : current.children.values()) {
+                stack.push(child);
+            }
+        }
+
+        // Keep only the best limit of them rather than sorting every match
+        PriorityQueue<Match> worstFirst = new PriorityQueue<>(RANK.reversed());
+        for (Match match : best.values()) {
+            worstFirst.add(match);
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+        List<Match> ranked = new ArrayList<>(worstFirst);
+        ranked.sort(RANK);
+
+        result = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            result.add(match.category);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root = new Node();
+        size = 0;
+    }
+
+    private void addKey(String key, Category category, MatchKind kind) {
+        Match match = new Match(category, kind);
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            offerTop(node, match);
+        }
+        if (node.matches == null) {
+            node.matches = new ArrayList<>(1);
+        }
+        node.matches.add(match);
+    }
+
+    /**
+     * Adds the match to the node's best list if it ranks there, replacing a
+     * worse match for the same category.
+     */
+    private static void offerTop(Node node, Match match) {
+        List<Match> top = node.top;
+        for (int i = 0; i < top.size(); i++) {
+            Match existing = top.get(i);
+            if (existing.category.getId().equals(match.category.getId())) {
+                if (RANK.compare(match, existing) >= 0) {
+                    return;
+                }
+                top.remove(i);
+                break;
+            }
+        }
+
+        int at = 0;
+        while (at < top.size() && RANK.compare(top.get(at), match) <= 0) {
+            at++;
+        }
+        if (at < TOP_SIZE) {
+            top.add(at, match);
+            if (top.size() > TOP_SIZE) {
+                top.remove(TOP_SIZE);
+            }
+        }
+    }
+}
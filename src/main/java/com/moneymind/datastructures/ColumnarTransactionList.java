@@ -0,0 +1,609 @@
+package main.java.com.moneymind.datastructures;
+
+import main.java.com.moneymind.model.Money;
+import main.java.com.moneymind.model.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Column-oriented counterpart of TransactionList for large in-memory ledgers.
+ * Rows are kept in parallel primitive arrays instead of Transaction objects:
+ * ids, amounts in cents, dates as epoch days and creation times as epoch
+ * seconds, with a bit set marking income rows. Category ids and descriptions
+ * are dictionary-encoded, so each row holds an int code and every distinct
+ * value is stored once. A row costs about 70 bytes against roughly 300
+ * for a Transaction with its boxed fields, dates and index entry.
+ *
+ * The query methods match TransactionList. Scans and aggregates read the
+ * columns directly; Transaction objects are built only for returned rows and
+ * are fresh copies, so changing them does not change the list.
+ */
+public class ColumnarTransactionList {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NO_ID = Long.MIN_VALUE;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_CODE = -1;
+
+    // Row columns
+    private long[] ids;
+    private long[] cents;
+    private int[] epochDays;
+    private long[] createdSeconds;
+    private int[] categoryCodes;
+    private int[] descriptionCodes;
+    private BitSet income;
+    private int size;
+
+    // Dictionaries
+    private long[] categoryIds;
+    private String[] categoryNames;
+    private Map<Long, Integer> categoryDictionary;
+    private List<String> descriptions;
+    private Map<String, Integer> descriptionDictionary;
+
+    private IdIndex idIndex;
+
+    public ColumnarTransactionList() {
+        clear();
+    }
+
+    public ColumnarTransactionList(List<Transaction> transactions) {
+        this();
+        addAll(transactions);
+    }
+
+    public ColumnarTransactionList(TransactionList transactions) {
+        this(transactions.getAll());
+    }
+
+    // Basic operations
+    public void add(Transaction transaction) {
+        ensureCapacity(size + 1);
+        int row = size++;
+
+        ids[row] = transaction.getId() != null ? transaction.getId() : NO_ID;
+        cents[row] = transaction.getAmountCents();
+        epochDays[row] = (int) transaction.getTransactionDate().toEpochDay();
+        createdSeconds[row] = transaction.getCreatedAt() != null
+                ? transaction.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : NO_TIME;
+        categoryCodes[row] = encodeCategory(transaction.getCategoryId(), transaction.getCategoryName());
+        descriptionCodes[row] = encodeDescription(transaction.getDescription());
+        income.set(row, transaction.getType() == Transaction.TransactionType.INCOME);
+
+        if (transaction.getId() != null) {
+            idIndex.put(transaction.getId(), row);
+        }
+    }
+
+    public void addAll(List<Transaction> transactionList) {
+        ensureCapacity(size + transactionList.size());
+        for (Transaction transaction : transactionList) {
+            add(transaction);
+        }
+    }
+
+    /**
+     * Removes the first row equal to the transaction: the row with its id, or
+     * for an unsaved transaction the first unsaved row with the same values.
+     */
+    public boolean remove(Transaction transaction) {
+        int row = transaction.getId() != null ? firstRowWithId(transaction.getId()) : firstUnsavedRow(transaction);
+        if (row == -1) {
+            return false;
+        }
+        removeRow(row);
+        return true;
+    }
+
+    public Transaction get(int index) {
+        Objects.checkIndex(index, size);
+        return materialize(index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        ids = new long[INITIAL_CAPACITY];
+        cents = new long[INITIAL_CAPACITY];
+        epochDays = new int[INITIAL_CAPACITY];
+        createdSeconds = new long[INITIAL_CAPACITY];
+        categoryCodes = new int[INITIAL_CAPACITY];
+        descriptionCodes = new int[INITIAL_CAPACITY];
+        income = new BitSet();
+        size = 0;
+
+        categoryIds = new long[INITIAL_CAPACITY];
+        categoryNames = new String[INITIAL_CAPACITY];
+        categoryDictionary = new HashMap<>();
+        descriptions = new ArrayList<>();
+        descriptionDictionary = new HashMap<>();
+
+        idIndex = new IdIndex();
+    }
+
+    // Search operations
+    public Transaction findById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        int row = idIndex.get(id);
+        return row != -1 ? materialize(row) : null;
+    }
+
+    public List<Transaction> findByCategory(Long categoryId) {
+        Integer code = categoryDictionary.get(categoryId);
+        List<Transaction> result = new ArrayList<>();
+        if (code == null) {
+            return result;
+        }
+        for (int row = 0; row < size; row++) {
+            if (categoryCodes[row] == code) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> findByType(Transaction.TransactionType type) {
+        List<Transaction> result = new ArrayList<>();
+        if (type == null) {
+            return result;
+        }
+        boolean wantIncome = type == Transaction.TransactionType.INCOME;
+        for (int row = 0; row < size; row++) {
+            if (income.get(row) == wantIncome) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        long startDay = startDate.toEpochDay();
+        long endDay = endDate.toEpochDay();
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            int day = epochDays[row];
+            if (day >= startDay && day <= endDay) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> findByAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
+        long minCents = Money.toCents(minAmount);
+        long maxCents = Money.toCents(maxAmount);
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            long amount = cents[row];
+            if (amount >= minCents && amount <= maxCents) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> searchByDescription(String keyword) {
+        BitSet matching = matchingDescriptions(keyword);
+        List<Transaction> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            int code = descriptionCodes[row];
+            if (code != NO_CODE && matching.get(code)) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    // Advanced filtering with multiple criteria, evaluated on the columns
+    public List<Transaction> filter(TransactionList.TransactionFilter filter) {
+        List<Transaction> result = new ArrayList<>();
+
+        int categoryCode = NO_CODE;
+        if (filter.getCategoryId() != null) {
+            Integer code = categoryDictionary.get(filter.getCategoryId());
+            if (code == null) {
+                return result;
+            }
+            categoryCode = code;
+        }
+        Transaction.TransactionType type = filter.getType();
+        boolean wantIncome = type == Transaction.TransactionType.INCOME;
+        long startDay = filter.getStartDate() != null ? filter.getStartDate().toEpochDay() : Long.MIN_VALUE;
+        long endDay = filter.getEndDate() != null ? filter.getEndDate().toEpochDay() : Long.MAX_VALUE;
+        long minCents = filter.getMinCents() != null ? filter.getMinCents() : Long.MIN_VALUE;
+        long maxCents = filter.getMaxCents() != null ? filter.getMaxCents() : Long.MAX_VALUE;
+        BitSet matching = filter.getDescriptionKeyword() != null
+                ? matchingDescriptions(filter.getDescriptionKeyword()) : null;
+
+        for (int row = 0; row < size; row++) {
+            if (type != null && income.get(row) != wantIncome) {
+                continue;
+            }
+            if (categoryCode != NO_CODE && categoryCodes[row] != categoryCode) {
+                continue;
+            }
+            int day = epochDays[row];
+            long amount = cents[row];
+            if (day < startDay || day > endDay || amount < minCents || amount > maxCents) {
+                continue;
+            }
+            if (matching != null && (descriptionCodes[row] == NO_CODE || !matching.get(descriptionCodes[row]))) {
+                continue;
+            }
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    // Statistics and aggregation
+    public BigDecimal getTotalAmount() {
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            total += cents[row];
+        }
+        return Money.toBigDecimal(total);
+    }
+
+    public BigDecimal getTotalIncome() {
+        return Money.toBigDecimal(sumCents(true));
+    }
+
+    public BigDecimal getTotalExpense() {
+        return Money.toBigDecimal(sumCents(false));
+    }
+
+    public BigDecimal getNetAmount() {
+        return Money.toBigDecimal(sumCents(true) - sumCents(false));
+    }
+
+    public Map<Long, BigDecimal> getAmountByCategory() {
+        long[] totals = new long[categoryDictionary.size()];
+        boolean[] present = new boolean[totals.length];
+        long uncategorized = 0;
+        boolean hasUncategorized = false;
+        for (int row = 0; row < size; row++) {
+            int code = categoryCodes[row];
+            if (code == NO_CODE) {
+                uncategorized += cents[row];
+                hasUncategorized = true;
+            } else {
+                totals[code] += cents[row];
+                present[code] = true;
+            }
+        }
+
+        Map<Long, BigDecimal> categoryTotals = new HashMap<>();
+        for (int code = 0; code < totals.length; code++) {
+            if (present[code]) {
+                categoryTotals.put(categoryIds[code], Money.toBigDecimal(totals[code]));
+            }
+        }
+        if (hasUncategorized) {
+            categoryTotals.put(null, Money.toBigDecimal(uncategorized));
+        }
+        return categoryTotals;
+    }
+
+    public Map<LocalDate, BigDecimal> getDailyTotals() {
+        Map<LocalDate, BigDecimal> dailyTotals = new TreeMap<>();
+        if (size == 0) {
+            return dailyTotals;
+        }
+
+        // One slot per day between the first and last date, unless that span is sparse
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int row = 0; row < size; row++) {
+            minDay = Math.min(minDay, epochDays[row]);
+            maxDay = Math.max(maxDay, epochDays[row]);
+        }
+        long span = (long) maxDay - minDay + 1;
+        if (span > 4L * size + 1024) {
+            Map<Integer, long[]> dailyCents = new TreeMap<>();
+            for (int row = 0; row < size; row++) {
+                dailyCents.computeIfAbsent(epochDays[row], k -> new long[1])[0] += cents[row];
+            }
+            for (Map.Entry<Integer, long[]> entry : dailyCents.entrySet()) {
+                dailyTotals.put(LocalDate.ofEpochDay(entry.getKey()), Money.toBigDecimal(entry.getValue()[0]));
+            }
+            return dailyTotals;
+        }
+
+        long[] totals = new long[(int) span];
+        BitSet present = new BitSet((int) span);
+        for (int row = 0; row < size; row++) {
+            int slot = epochDays[row] - minDay;
+            totals[slot] += cents[row];
+            present.set(slot);
+        }
+        for (int slot = present.nextSetBit(0); slot >= 0; slot = present.nextSetBit(slot + 1)) {
+            dailyTotals.put(LocalDate.ofEpochDay((long) minDay + slot), Money.toBigDecimal(totals[slot]));
+        }
+        return dailyTotals;
+    }
+
+    // Utility methods
+    public List<Transaction> getAll() {
+        List<Transaction> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    /**
+     * The count latest rows by date; rows on the same date keep list order.
+     */
+    public List<Transaction> getRecent(int count) {
+        int limit = Math.min(Math.max(count, 0), size);
+        // Key sorts by date, then earlier rows first; the heap holds the best keys seen
+        PriorityQueue<Long> best = new PriorityQueue<>(Math.max(limit, 1));
+        for (int row = 0; row < size && limit > 0; row++) {
+            long key = ((long) epochDays[row] << 32) | (Integer.MAX_VALUE - row);
+            if (best.size() < limit) {
+                best.add(key);
+            } else if (key > best.peek()) {
+                best.poll();
+                best.add(key);
+            }
+        }
+
+        List<Transaction> result = new ArrayList<>(limit);
+        while (!best.isEmpty()) {
+            result.add(materialize(Integer.MAX_VALUE - (int) (best.poll() & 0xFFFFFFFFL)));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    public Transaction getLargestTransaction() {
+        int largest = -1;
+        for (int row = 0; row < size; row++) {
+            if (largest == -1 || cents[row] > cents[largest]) {
+                largest = row;
+            }
+        }
+        return largest != -1 ? materialize(largest) : null;
+    }
+
+    public Transaction getSmallestTransaction() {
+        int smallest = -1;
+        for (int row = 0; row < size; row++) {
+            if (smallest == -1 || cents[row] < cents[smallest]) {
+                smallest = row;
+            }
+        }
+        return smallest != -1 ? materialize(smallest) : null;
+    }
+
+    /**
+     * Approximate heap held by the columns, dictionaries and id index, in bytes.
+     */
+    public long estimateMemoryBytes() {
+        long bytes = (long) ids.length * 8 + (long) cents.length * 8 + (long) epochDays.length * 4
+                + (long) createdSeconds.length * 8 + (long) categoryCodes.length * 4
+                + (long) descriptionCodes.length * 4 + income.size() / 8;
+        bytes += (long) categoryIds.length * 12 + categoryDictionary.size() * 64L;
+        for (String description : descriptions) {
+            bytes += 40 + description.length() + 64; // String, its bytes and a dictionary entry
+        }
+        return bytes + idIndex.estimateMemoryBytes();
+    }
+
+    // Private helper methods
+    private Transaction materialize(int row) {
+        Transaction transaction = new Transaction();
+        transaction.setId(ids[row] != NO_ID ? ids[row] : null);
+        transaction.setAmountCents(cents[row]);
+        transaction.setTransactionDate(LocalDate.ofEpochDay(epochDays[row]));
+        if (createdSeconds[row] != NO_TIME) {
+            transaction.setCreatedAt(LocalDateTime.ofEpochSecond(createdSeconds[row], 0, ZoneOffset.UTC));
+        }
+        int category = categoryCodes[row];
+        if (category != NO_CODE) {
+            transaction.setCategoryId(categoryIds[category]);
+            transaction.setCategoryName(categoryNames[category]);
+        }
+        int description = descriptionCodes[row];
+        transaction.setDescription(description != NO_CODE ? descriptions.get(description) : null);
+        transaction.setType(income.get(row) ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+        return transaction;
+    }
+
+    private long sumCents(boolean incomeRows) {
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            if (income.get(row) == incomeRows) {
+                total += cents[row];
+            }
+        }
+        return total;
+    }
+
+    // Codes of the distinct descriptions containing the keyword, ignoring case
+    private BitSet matchingDescriptions(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        BitSet matching = new BitSet(descriptions.size());
+        for (int code = 0; code < descriptions.size(); code++) {
+            if (descriptions.get(code).toLowerCase().contains(lowerKeyword)) {
+                matching.set(code);
+            }
+        }
+        return matching;
+    }
+
+    private int encodeCategory(Long categoryId, String categoryName) {
+        if (categoryId == null) {
+            return NO_CODE;
+        }
+        Integer code = categoryDictionary.get(categoryId);
+        if (code == null) {
+            code = categoryDictionary.size();
+            if (code == categoryIds.length) {
+                categoryIds = Arrays.copyOf(categoryIds, code * 2);
+                categoryNames = Arrays.copyOf(categoryNames, code * 2);
+            }
+            categoryIds[code] = categoryId;
+            categoryDictionary.put(categoryId, code);
+        }
+        if (categoryName != null) {
+            categoryNames[code] = categoryName; // Latest name wins, as after a rename
+        }
+        return code;
+    }
+
+    private int encodeDescription(String description) {
+        if (description == null) {
+            return NO_CODE;
+        }
+        Integer code = descriptionDictionary.get(description);
+        if (code == null) {
+            code = descriptions.size();
+            descriptions.add(description);
+            descriptionDictionary.put(description, code);
+        }
+        return code;
+    }
+
+    private int firstRowWithId(long id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private int firstUnsavedRow(Transaction transaction) {
+        Integer description = transaction.getDescription() != null
+                ? descriptionDictionary.get(transaction.getDescription()) : Integer.valueOf(NO_CODE);
+        Integer category = transaction.getCategoryId() != null
+                ? categoryDictionary.get(transaction.getCategoryId()) : Integer.valueOf(NO_CODE);
+        if (description == null || category == null) {
+            return -1;
+        }
+        boolean wantIncome = transaction.getType() == Transaction.TransactionType.INCOME;
+        long day = transaction.getTransactionDate().toEpochDay();
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == NO_ID && cents[row] == transaction.getAmountCents() && epochDays[row] == day
+                    && categoryCodes[row] == category && descriptionCodes[row] == description
+                    && income.get(row) == wantIncome) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void removeRow(int row) {
+        int tail = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, tail);
+        System.arraycopy(cents, row + 1, cents, row, tail);
+        System.arraycopy(epochDays, row + 1, epochDays, row, tail);
+        System.arraycopy(createdSeconds, row + 1, createdSeconds, row, tail);
+        System.arraycopy(categoryCodes, row + 1, categoryCodes, row, tail);
+        System.arraycopy(descriptionCodes, row + 1, descriptionCodes, row, tail);
+        for (int i = row; i < size - 1; i++) {
+            income.set(i, income.get(i + 1));
+        }
+        size--;
+        income.clear(size);
+
+        // Dictionary entries are kept; they are shared and small
+        idIndex = new IdIndex();
+        for (int i = 0; i < size; i++) {
+            if (ids[i] != NO_ID) {
+                idIndex.put(ids[i], i);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        cents = Arrays.copyOf(cents, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        createdSeconds = Arrays.copyOf(createdSeconds, newCapacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, newCapacity);
+        descriptionCodes = Arrays.copyOf(descriptionCodes, newCapacity);
+    }
+
+    /**
+     * Open-addressing map from transaction id to row with linear probing,
+     * kept in two primitive arrays so ids are never boxed. Like the index map
+     * of TransactionList, a later row with the same id replaces the earlier.
+     */
+    private static class IdIndex {
+        private long[] keys;
+        private int[] rows; // -1 marks an empty slot
+        private int count;
+
+        IdIndex() {
+            keys = new long[INITIAL_CAPACITY];
+            rows = new int[INITIAL_CAPACITY];
+            Arrays.fill(rows, -1);
+        }
+
+        void put(long id, int row) {
+            if ((count + 1) * 3L > rows.length * 2L) {
+                grow();
+            }
+            int slot = slot(id, rows.length);
+            while (rows[slot] != -1 && keys[slot] != id) {
+                slot = (slot + 1) & (rows.length - 1);
+            }
+            if (rows[slot] == -1) {
+                count++;
+            }
+            keys[slot] = id;
+            rows[slot] = row;
+        }
+
+        int get(long id) {
+            int slot = slot(id, rows.length);
+            while (rows[slot] != -1) {
+                if (keys[slot] == id) {
+                    return rows[slot];
+                }
+                slot = (slot + 1) & (rows.length - 1);
+            }
+            return -1;
+        }
+
+        long estimateMemoryBytes() {
+            return (long) keys.length * 12;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldRows = rows;
+            keys = new long[oldKeys.length * 2];
+            rows = new int[oldRows.length * 2];
+            Arrays.fill(rows, -1);
+            count = 0;
+            for (int i = 0; i < oldRows.length; i++) {
+                if (oldRows[i] != -1) {
+                    put(oldKeys[i], oldRows[i]);
+                }
+            }
+        }
+
+        private static int slot(long id, int capacity) {
+            long hash = id * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & (capacity - 1);
+        }
+    }
+}
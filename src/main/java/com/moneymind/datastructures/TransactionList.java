@@ -1,5 +1,6 @@
 package main.java.com.moneymind.datastructures;
 
+import main.java.com.moneymind.model.Money;
 import main.java.com.moneymind.model.Transaction;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -8,12 +9,26 @@ import java.util.*;
 /**
  * Custom ArrayList implementation with enhanced search and filter capabilities
  * for Transaction management
+ *
+ * Secondary indexes can be switched on for large lists (see
+ * {@link #setIndexed(boolean)}): per-category posting lists of row positions,
+ * income and expense bit sets, and date- and amount-sorted row indexes for
+ * binary-searched range queries. They are kept up to date by add and remove.
+ * Transactions must not be changed while they are in an indexed list; call
+ * {@link #rebuildIndexes()} after changing one in place.
  */
 
 public class TransactionList {
     private List<Transaction> transactions;
     private Map<Long, Integer> indexMap; // For O(1) lookup by ID
 
+    // Secondary indexes, null unless enabled
+    private Map<Long, RowList> categoryRows;
+    private BitSet incomeRows;
+    private BitSet expenseRows;
+    private SortedRowIndex dateIndex;
+    private SortedRowIndex amountIndex;
+
     public TransactionList() {
         this.transactions = new ArrayList<>();
         this.indexMap = new HashMap<>();
@@ -24,12 +39,56 @@ public class TransactionList {
         addAll(transactions);
     }
 
+    public TransactionList(List<Transaction> transactions, boolean indexed) {
+        this();
+        setIndexed(indexed);
+        addAll(transactions);
+    }
+
+    // Secondary indexes
+    public boolean isIndexed() {
+        return categoryRows != null;
+    }
+
+    /**
+     * Builds or drops the secondary indexes. They pay off for repeated queries
+     * over a large list; each costs memory in proportion to the list size.
+     */
+    public void setIndexed(boolean indexed) {
+        if (indexed == isIndexed()) {
+            return;
+        }
+        if (indexed) {
+            rebuildIndexes();
+        } else {
+            categoryRows = null;
+            incomeRows = null;
+            expenseRows = null;
+            dateIndex = null;
+            amountIndex = null;
+        }
+    }
+
+    public void rebuildIndexes() {
+        categoryRows = new HashMap<>();
+        incomeRows = new BitSet();
+        expenseRows = new BitSet();
+        dateIndex = new SortedRowIndex();
+        amountIndex = new SortedRowIndex();
+        for (int i = 0; i < transactions.size(); i++) {
+            indexRow(transactions.get(i), i);
+        }
+    }
+
     // Basic operations
     public void add(Transaction transaction) {
         transactions.add(transaction);
         if (transaction.getId() != null) {
             indexMap.put(transaction.getId(), transactions.size() - 1);
         }
+        if (isIndexed()) {
+            indexRow(transaction, transactions.size() - 1);
+        }
     }
 
     public void addAll(List<Transaction> transactionList) {
@@ -43,6 +102,9 @@ public class TransactionList {
         if (index != -1) {
             transactions.remove(index);
             rebuildIndexMap();
+            if (isIndexed()) {
+                unindexRow(index);
+            }
             return true;
         }
         return false;
@@ -63,6 +125,9 @@ public class TransactionList {
     public void clear() {
         transactions.clear();
         indexMap.clear();
+        if (isIndexed()) {
+            rebuildIndexes();
+        }
     }
 
     // Search operations
@@ -72,6 +137,10 @@ public class TransactionList {
     }
 
     public List<Transaction> findByCategory(Long categoryId) {
+        if (isIndexed()) {
+            RowList rows = categoryRows.get(categoryId);
+            return rows != null ? rowsToTransactions(rows.toArray()) : new ArrayList<>();
+        }
         List<Transaction> result = new ArrayList<>();
         for (Transaction transaction : transactions) {
             if (transaction.getCategoryId().equals(categoryId)) {
@@ -82,6 +151,9 @@ public class TransactionList {
     }
 
     public List<Transaction> findByType(Transaction.TransactionType type) {
+        if (isIndexed() && type != null) {
+            return rowsToTransactions(typeRows(type).stream().toArray());
+        }
         List<Transaction> result = new ArrayList<>();
         for (Transaction transaction : transactions) {
             if (transaction.getType() == type) {
@@ -92,6 +164,9 @@ public class TransactionList {
     }
 
     public List<Transaction> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        if (isIndexed()) {
+            return rowsToTransactions(dateIndex.rowsInRange(startDate.toEpochDay(), endDate.toEpochDay()));
+        }
         List<Transaction> result = new ArrayList<>();
         for (Transaction transaction : transactions) {
             LocalDate transDate = transaction.getTransactionDate();
@@ -103,10 +178,15 @@ public class TransactionList {
     }
 
     public List<Transaction> findByAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
+        long minCents = Money.toCents(minAmount);
+        long maxCents = Money.toCents(maxAmount);
+        if (isIndexed()) {
+            return rowsToTransactions(amountIndex.rowsInRange(minCents, maxCents));
+        }
         List<Transaction> result = new ArrayList<>();
         for (Transaction transaction : transactions) {
-            BigDecimal amount = transaction.getAmount();
-            if (amount.compareTo(minAmount) >= 0 && amount.compareTo(maxAmount) <= 0) {
+            long cents = transaction.getAmountCents();
+            if (cents >= minCents && cents <= maxCents) {
                 result.add(transaction);
             }
         }
@@ -127,7 +207,17 @@ public class TransactionList {
     // Advanced filtering with multiple criteria
     public List<Transaction> filter(TransactionFilter filter) {
         List<Transaction> result = new ArrayList<>();
-        for (Transaction transaction : transactions) {
+        int[] candidates = isIndexed() ? selectiveCandidates(filter) : null;
+        if (candidates == null) {
+            for (Transaction transaction : transactions) {
+                if (filter.matches(transaction)) {
+                    result.add(transaction);
+                }
+            }
+            return result;
+        }
+        for (int row : candidates) {
+            Transaction transaction = transactions.get(row);
             if (filter.matches(transaction)) {
                 result.add(transaction);
             }
@@ -137,43 +227,48 @@ public class TransactionList {
 
     // Statistics and aggregation
     public BigDecimal getTotalAmount() {
-        return transactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0;
+        for (Transaction transaction : transactions) {
+            total += transaction.getAmountCents();
+        }
+        return Money.toBigDecimal(total);
     }
 
     public BigDecimal getTotalIncome() {
-        return transactions.stream()
-                .filter(Transaction::isIncome)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Money.toBigDecimal(sumCents(Transaction.TransactionType.INCOME));
     }
 
     public BigDecimal getTotalExpense() {
-        return transactions.stream()
-                .filter(Transaction::isExpense)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Money.toBigDecimal(sumCents(Transaction.TransactionType.EXPENSE));
     }
 
     public BigDecimal getNetAmount() {
-        return getTotalIncome().subtract(getTotalExpense());
+        return Money.toBigDecimal(sumCents(Transaction.TransactionType.INCOME)
+                - sumCents(Transaction.TransactionType.EXPENSE));
     }
 
     public Map<Long, BigDecimal> getAmountByCategory() {
-        Map<Long, BigDecimal> categoryTotals = new HashMap<>();
+        Map<Long, long[]> categoryCents = new HashMap<>();
         for (Transaction transaction : transactions) {
-            Long categoryId = transaction.getCategoryId();
-            categoryTotals.merge(categoryId, transaction.getAmount(), BigDecimal::add);
+            categoryCents.computeIfAbsent(transaction.getCategoryId(), k -> new long[1])[0] += transaction.getAmountCents();
+        }
+
+        Map<Long, BigDecimal> categoryTotals = new HashMap<>();
+        for (Map.Entry<Long, long[]> entry : categoryCents.entrySet()) {
+            categoryTotals.put(entry.getKey(), Money.toBigDecimal(entry.getValue()[0]));
         }
         return categoryTotals;
     }
 
     public Map<LocalDate, BigDecimal> getDailyTotals() {
-        Map<LocalDate, BigDecimal> dailyTotals = new TreeMap<>();
+        Map<LocalDate, long[]> dailyCents = new TreeMap<>();
         for (Transaction transaction : transactions) {
-            LocalDate date = transaction.getTransactionDate();
-            dailyTotals.merge(date, transaction.getAmount(), BigDecimal::add);
+            dailyCents.computeIfAbsent(transaction.getTransactionDate(), k -> new long[1])[0] += transaction.getAmountCents();
+        }
+
+        Map<LocalDate, BigDecimal> dailyTotals = new TreeMap<>();
+        for (Map.Entry<LocalDate, long[]> entry : dailyCents.entrySet()) {
+            dailyTotals.put(entry.getKey(), Money.toBigDecimal(entry.getValue()[0]));
         }
         return dailyTotals;
     }
@@ -191,16 +286,137 @@ public class TransactionList {
 
     public Transaction getLargestTransaction() {
         return transactions.stream()
-                .max(Comparator.comparing(Transaction::getAmount))
+                .max(Comparator.comparingLong(Transaction::getAmountCents))
                 .orElse(null);
     }
 
     public Transaction getSmallestTransaction() {
         return transactions.stream()
-                .min(Comparator.comparing(Transaction::getAmount))
+                .min(Comparator.comparingLong(Transaction::getAmountCents))
                 .orElse(null);
     }
 
+    private long sumCents(Transaction.TransactionType type) {
+        long total = 0;
+        for (Transaction transaction : transactions) {
+            if (transaction.getType() == type) {
+                total += transaction.getAmountCents();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Rows of the most selective indexed criterion, in list order, or null when
+     * a plain scan is as cheap. Each index reports its exact match count; rows
+     * from a sorted index also have to be put back in list order, so they are
+     * counted at twice the cost of rows from a posting list or bit set.
+     */
+    private int[] selectiveCandidates(TransactionFilter filter) {
+        long bestCost = transactions.size();
+        int choice = -1;
+
+        RowList categoryMatches = null;
+        if (filter.getCategoryId() != null) {
+            categoryMatches = categoryRows.get(filter.getCategoryId());
+            if (categoryMatches == null) {
+                return new int[0];
+            }
+            if (categoryMatches.size < bestCost) {
+                bestCost = categoryMatches.size;
+                choice = 0;
+            }
+        }
+
+        BitSet typeMatches = null;
+        if (filter.getType() != null) {
+            typeMatches = typeRows(filter.getType());
+            int count = typeMatches.cardinality();
+            if (count < bestCost) {
+                bestCost = count;
+                choice = 1;
+            }
+        }
+
+        long startDay = 0, endDay = 0;
+        if (filter.getStartDate() != null || filter.getEndDate() != null) {
+            startDay = filter.getStartDate() != null ? filter.getStartDate().toEpochDay() : Long.MIN_VALUE;
+            endDay = filter.getEndDate() != null ? filter.getEndDate().toEpochDay() : Long.MAX_VALUE;
+            long cost = 2L * dateIndex.countInRange(startDay, endDay);
+            if (cost < bestCost) {
+                bestCost = cost;
+                choice = 2;
+            }
+        }
+
+        long minCents = 0, maxCents = 0;
+        if (filter.getMinCents() != null || filter.getMaxCents() != null) {
+            minCents = filter.getMinCents() != null ? filter.getMinCents() : Long.MIN_VALUE;
+            maxCents = filter.getMaxCents() != null ? filter.getMaxCents() : Long.MAX_VALUE;
+            long cost = 2L * amountIndex.countInRange(minCents, maxCents);
+            if (cost < bestCost) {
+                choice = 3;
+            }
+        }
+
+        switch (choice) {
+            case 0: return categoryMatches.toArray();
+            case 1: return typeMatches.stream().toArray();
+            case 2: return dateIndex.rowsInRange(startDay, endDay);
+            case 3: return amountIndex.rowsInRange(minCents, maxCents);
+            default: return null;
+        }
+    }
+
+    private BitSet typeRows(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.INCOME ? incomeRows : expenseRows;
+    }
+
+    private List<Transaction> rowsToTransactions(int[] rows) {
+        List<Transaction> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(transactions.get(row));
+        }
+        return result;
+    }
+
+    private void indexRow(Transaction transaction, int row) {
+        categoryRows.computeIfAbsent(transaction.getCategoryId(), k -> new RowList()).add(row);
+        if (transaction.getType() == Transaction.TransactionType.INCOME) {
+            incomeRows.set(row);
+        } else if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
+            expenseRows.set(row);
+        }
+        if (transaction.getTransactionDate() != null) {
+            dateIndex.add(transaction.getTransactionDate().toEpochDay(), row);
+        }
+        amountIndex.add(transaction.getAmountCents(), row);
+    }
+
+    // Drops a removed row and moves every later row down by one
+    private void unindexRow(int row) {
+        Iterator<RowList> lists = categoryRows.values().iterator();
+        while (lists.hasNext()) {
+            RowList rows = lists.next();
+            rows.removeRow(row);
+            if (rows.size == 0) {
+                lists.remove();
+            }
+        }
+        incomeRows = withoutRow(incomeRows, row);
+        expenseRows = withoutRow(expenseRows, row);
+        dateIndex.removeRow(row);
+        amountIndex.removeRow(row);
+    }
+
+    private static BitSet withoutRow(BitSet rows, int row) {
+        BitSet shifted = rows.get(0, row);
+        for (int i = rows.nextSetBit(row + 1); i >= 0; i = rows.nextSetBit(i + 1)) {
+            shifted.set(i - 1);
+        }
+        return shifted;
+    }
+
     private void rebuildIndexMap() {
         indexMap.clear();
         for (int i = 0; i < transactions.size(); i++) {
@@ -211,14 +427,171 @@ public class TransactionList {
         }
     }
 
+    // Ascending row positions of one category
+    private static class RowList {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        void removeRow(int row) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (rows[i] != row) {
+                    rows[kept++] = rows[i] > row ? rows[i] - 1 : rows[i];
+                }
+            }
+            size = kept;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+
+    /**
+     * Row positions sorted by a long key (epoch day or cents), then by row.
+     * New rows always come after every indexed row, so they are buffered and
+     * merged in with one stable sort before the next query.
+     */
+    private static class SortedRowIndex {
+        private long[] keys = new long[0];
+        private int[] rows = new int[0];
+        private long[] pendingKeys = new long[16];
+        private int[] pendingRows = new int[16];
+        private int pending;
+
+        void add(long key, int row) {
+            if (pending == pendingRows.length) {
+                pendingKeys = Arrays.copyOf(pendingKeys, pending * 2);
+                pendingRows = Arrays.copyOf(pendingRows, pending * 2);
+            }
+            pendingKeys[pending] = key;
+            pendingRows[pending] = row;
+            pending++;
+        }
+
+        void removeRow(int row) {
+            flush();
+            int kept = 0;
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] != row) {
+                    keys[kept] = keys[i];
+                    rows[kept] = rows[i] > row ? rows[i] - 1 : rows[i];
+                    kept++;
+                }
+            }
+            keys = Arrays.copyOf(keys, kept);
+            rows = Arrays.copyOf(rows, kept);
+        }
+
+        int countInRange(long min, long max) {
+            flush();
+            return Math.max(0, upperBound(max) - lowerBound(min));
+        }
+
+        // Matching rows in list order
+        int[] rowsInRange(long min, long max) {
+            flush();
+            int from = lowerBound(min);
+            int to = upperBound(max);
+            if (from >= to) {
+                return new int[0];
+            }
+            int[] result = Arrays.copyOfRange(rows, from, to);
+            Arrays.sort(result);
+            return result;
+        }
+
+        // First position with key >= min
+        private int lowerBound(long min) {
+            int low = 0, high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < min) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First position with key > max
+        private int upperBound(long max) {
+            int low = 0, high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= max) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void flush() {
+            if (pending == 0) {
+                return;
+            }
+            int[] order = sortedOrder(pendingKeys, pending);
+
+            // Merge; on equal keys the indexed rows come first, being earlier
+            long[] mergedKeys = new long[keys.length + pending];
+            int[] mergedRows = new int[rows.length + pending];
+            int i = 0, j = 0, k = 0;
+            while (i < keys.length || j < pending) {
+                if (j == pending || (i < keys.length && keys[i] <= pendingKeys[order[j]])) {
+                    mergedKeys[k] = keys[i];
+                    mergedRows[k++] = rows[i++];
+                } else {
+                    mergedKeys[k] = pendingKeys[order[j]];
+                    mergedRows[k++] = pendingRows[order[j++]];
+                }
+            }
+            keys = mergedKeys;
+            rows = mergedRows;
+            pending = 0;
+        }
+
+        // Positions 0..count-1 stably sorted by key (bottom-up merge sort)
+        private static int[] sortedOrder(long[] keys, int count) {
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            int[] buffer = new int[count];
+            for (int width = 1; width < count; width *= 2) {
+                for (int low = 0; low < count - width; low += 2 * width) {
+                    int mid = low + width;
+                    int high = Math.min(low + 2 * width, count);
+                    int i = low, j = mid, k = low;
+                    while (i < mid && j < high) {
+                        buffer[k++] = keys[order[j]] < keys[order[i]] ? order[j++] : order[i++];
+                    }
+                    while (i < mid) buffer[k++] = order[i++];
+                    while (j < high) buffer[k++] = order[j++];
+                    System.arraycopy(buffer, low, order, low, high - low);
+                }
+            }
+            return order;
+        }
+    }
+
     // Inner class for complex filtering
     public static class TransactionFilter {
         private Transaction.TransactionType type;
         private Long categoryId;
         private LocalDate startDate;
         private LocalDate endDate;
-        private BigDecimal minAmount;
-        private BigDecimal maxAmount;
+        private Long minCents;
+        private Long maxCents;
         private String descriptionKeyword;
 
         public TransactionFilter() {}
@@ -240,8 +613,8 @@ public class TransactionList {
         }
 
         public TransactionFilter setAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
-            this.minAmount = minAmount;
-            this.maxAmount = maxAmount;
+            this.minCents = minAmount != null ? Money.toCents(minAmount) : null;
+            this.maxCents = maxAmount != null ? Money.toCents(maxAmount) : null;
             return this;
         }
 
@@ -250,6 +623,15 @@ public class TransactionList {
             return this;
         }
 
+        // Read by the index planner and by ColumnarTransactionList
+        Transaction.TransactionType getType() { return type; }
+        Long getCategoryId() { return categoryId; }
+        LocalDate getStartDate() { return startDate; }
+        LocalDate getEndDate() { return endDate; }
+        Long getMinCents() { return minCents; }
+        Long getMaxCents() { return maxCents; }
+        String getDescriptionKeyword() { return descriptionKeyword; }
+
         public boolean matches(Transaction transaction) {
             if (type != null && transaction.getType() != type) {
                 return false;
@@ -267,11 +649,11 @@ public class TransactionList {
                 return false;
             }
 
-            if (minAmount != null && transaction.getAmount().compareTo(minAmount) < 0) {
+            if (minCents != null && transaction.getAmountCents() < minCents) {
                 return false;
             }
 
-            if (maxAmount != null && transaction.getAmount().compareTo(maxAmount) > 0) {
+            if (maxCents != null && transaction.getAmountCents() > maxCents) {
                 return false;
             }
 
@@ -145,7 +145,7 @@ public class TransactionSorter {
             case DATE:
                 return Comparator.comparing(Transaction::getTransactionDate);
             case AMOUNT:
-                return Comparator.comparing(Transaction::getAmount);
+                return Comparator.comparingLong(Transaction::getAmountCents);
             case DESCRIPTION:
                 return Comparator.comparing(Transaction::getDescription,
                         String.CASE_INSENSITIVE_ORDER);
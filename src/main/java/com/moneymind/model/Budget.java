@@ -1,7 +1,6 @@
 package main.java.com.moneymind.model;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 
 /**
@@ -16,24 +15,21 @@ public class Budget {
     private Long id;
     private Long categoryId;
     private String categoryName;
-    private BigDecimal amount;
+    private long amountCents;
     private BudgetPeriod period;
     private LocalDate startDate;
     private LocalDate endDate;
-    private BigDecimal spent;
-    private BigDecimal remaining;
+    private long spentCents;
 
     // Constructors
     public Budget() {}
 
     public Budget(Long categoryId, BigDecimal amount, BudgetPeriod period, LocalDate startDate, LocalDate endDate) {
         this.categoryId = categoryId;
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
         this.period = period;
         this.startDate = startDate;
         this.endDate = endDate;
-        this.spent = BigDecimal.ZERO;
-        this.remaining = amount;
     }
 
     //Getters and Setters
@@ -46,11 +42,11 @@ public class Budget {
     public String getCategoryName() { return categoryName; }
     public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
 
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) {
-        this.amount = amount;
-        updateRemaining();
-    }
+    public BigDecimal getAmount() { return Money.toBigDecimal(amountCents); }
+    public void setAmount(BigDecimal amount) { this.amountCents = Money.toCents(amount); }
+
+    public long getAmountCents() { return amountCents; }
+    public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
 
     public BudgetPeriod getPeriod() { return period; }
     public void setPeriod(BudgetPeriod period) { this.period = period; }
@@ -61,32 +57,26 @@ public class Budget {
     public LocalDate getEndDate() { return endDate; }
     public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
 
-    public BigDecimal getSpent() { return spent; }
-    public void setSpent(BigDecimal spent) {
-        this.spent = spent != null ? spent : BigDecimal.ZERO;
-        updateRemaining();
-    }
+    public BigDecimal getSpent() { return Money.toBigDecimal(spentCents); }
+    public void setSpent(BigDecimal spent) { this.spentCents = Money.toCents(spent); }
 
-    public BigDecimal getRemaining() { return remaining; }
+    public long getSpentCents() { return spentCents; }
+    public void setSpentCents(long spentCents) { this.spentCents = spentCents; }
 
-    // Utility methods
-    private void updateRemaining() {
-        if (amount != null && spent != null) {
-            this.remaining = amount.subtract((spent));
-        }
-    }
+    public BigDecimal getRemaining() { return Money.toBigDecimal(getRemainingCents()); }
+    public long getRemainingCents() { return amountCents - spentCents; }
 
+    // Utility methods
     public double getUsagePercentage() {
-        if (amount.compareTo(BigDecimal.ZERO) == 0) {
+        if (amountCents == 0) {
             return 0.0;
         }
-        return spent.divide(amount, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-                .doubleValue();
+        // Same 4-decimal rounding of the ratio as the former BigDecimal division
+        return Math.round(spentCents * 10_000.0 / amountCents) / 100.0;
     }
 
     public boolean isOverBudget() {
-        return spent.compareTo(amount) > 0;
+        return spentCents > amountCents;
     }
 
     public boolean isNearLimit(double percentage) {
@@ -113,7 +103,7 @@ public class Budget {
     @Override
     public String toString() {
         return String.format("%s Budget: %.2f (%.1f%% used)",
-                categoryName, amount, getUsagePercentage());
+                categoryName, getAmount(), getUsagePercentage());
     }
 
     @Override
@@ -1,7 +1,7 @@
 package main.java.com.moneymind.model;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Category model class for organizing transactions in a tree structure
@@ -15,12 +15,19 @@ public class Category {
     private String name;
     private Long parentId;
     private CategoryType type;
+    // Copy-on-write so the UI can walk children while a worker patches the tree
     private List<Category> children;
     private Category parent;
 
+    // Position in the pre-order numbering of CategoryTree; -1 until numbered
+    private int entry = -1;
+    private int exit = -1;
+    private int level = -1;
+    private String fullPath;
+
     // Constructors
     public Category() {
-        this.children = new ArrayList<>();
+        this.children = new CopyOnWriteArrayList<>();
     }
 
     public Category(String name, CategoryType type) {
@@ -39,7 +46,10 @@ public class Category {
     public void setId(Long id) { this.id = id; }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        this.fullPath = null;
+    }
 
     public Long getParentId() { return parentId; }
     public void setParentId(Long parentId) { this.parentId = parentId; }
@@ -51,7 +61,38 @@ public class Category {
     public void setChildren(List<Category> children) { this.children = children; }
 
     public Category getParent() { return parent; }
-    public void setParent(Category parent) { this.parent = parent; }
+    public void setParent(Category parent) {
+        this.parent = parent;
+        clearTreePosition();
+    }
+
+    /**
+     * Pre-order number of this category in its CategoryTree. The categories
+     * of its subtree are numbered getEntry() through getExit().
+     */
+    public int getEntry() { return entry; }
+    public int getExit() { return exit; }
+
+    public boolean isNumbered() { return entry >= 0; }
+
+    /**
+     * Records this category's place in the tree. Set by CategoryTree when it
+     * numbers the hierarchy; cleared when the parent changes, and the cached
+     * path is dropped when the name changes.
+     */
+    public void setTreePosition(int entry, int exit, int level, String fullPath) {
+        this.entry = entry;
+        this.exit = exit;
+        this.level = level;
+        this.fullPath = fullPath;
+    }
+
+    public void clearTreePosition() {
+        this.entry = -1;
+        this.exit = -1;
+        this.level = -1;
+        this.fullPath = null;
+    }
 
     // Tree operations
     public void addChild(Category child) {
@@ -77,6 +118,9 @@ public class Category {
     }
 
     public String getFullPath() {
+        if (fullPath != null) {
+            return fullPath;
+        }
         if (isRoot()) {
             return name;
         }
@@ -84,13 +128,16 @@ public class Category {
     }
 
     public int getLevel() {
-        int level = 0;
+        if (level >= 0) {
+            return level;
+        }
+        int depth = 0;
         Category current = this.parent;
         while (current != null) {
-            level++;
+            depth++;
             current = current.getParent();
         }
-        return level;
+        return depth;
     }
 
     @Override
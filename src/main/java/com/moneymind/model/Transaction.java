@@ -15,7 +15,7 @@ public class Transaction {
 
     private Long id;
     private String description;
-    private BigDecimal amount;
+    private long amountCents;
     private LocalDate transactionDate;
     private Long categoryId;
     private String categoryName;
@@ -27,7 +27,7 @@ public class Transaction {
 
     public Transaction(String description, BigDecimal amount, LocalDate transactionDate, Long categoryId, TransactionType type) {
         this.description = description;
-        this.amount = amount;
+        this.amountCents = Money.toCents(amount);
         this.transactionDate = transactionDate;
         this.categoryId = categoryId;
         this.type = type;
@@ -41,8 +41,13 @@ public class Transaction {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public BigDecimal getAmount() { return Money.toBigDecimal(amountCents); }
+    public void setAmount(BigDecimal amount) { this.amountCents = Money.toCents(amount); }
+
+    public long getAmountCents() { return amountCents; }
+    public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
+
+    public Money getMoney() { return Money.ofCents(amountCents); }
 
     public LocalDate getTransactionDate() { return  transactionDate; }
     public void setTransactionDate(LocalDate transactionDate) { this.transactionDate = transactionDate; }
@@ -71,7 +76,7 @@ public class Transaction {
     @Override
     public String toString() {
         return String.format("%s: %s %.2f (%s) on %s",
-                type, description, amount, categoryName, transactionDate);
+                type, description, getAmount(), categoryName, transactionDate);
     }
 
     @Override
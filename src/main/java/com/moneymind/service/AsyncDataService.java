@@ -0,0 +1,243 @@
+package main.java.com.moneymind.service;
+
+import main.java.com.moneymind.database.DatabaseManager;
+import main.java.com.moneymind.datastructures.TransactionSorter;
+import main.java.com.moneymind.model.Budget;
+import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.model.Transaction;
+import javax.swing.SwingUtilities;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous facade over the data services for the Swing panels.
+ * Queries run on a small bounded worker pool instead of the Event Dispatch
+ * Thread, results are handed back on the EDT, and a newer refresh of the same
+ * kind cancels the one still in flight so stale data is never painted.
+ */
+public class AsyncDataService {
+
+    /**
+     * A blocking service call to run off the EDT.
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        T run() throws Exception;
+    }
+
+    private static final int WORKER_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 32;
+
+    private final TransactionService transactionService;
+    private final CategoryService categoryService;
+    private final BudgetService budgetService;
+    private final ReportService reportService;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<?>> latestByKey = new ConcurrentHashMap<>();
+
+    public AsyncDataService(TransactionService transactionService, CategoryService categoryService,
+                            BudgetService budgetService, ReportService reportService) {
+        this.transactionService = transactionService;
+        this.categoryService = categoryService;
+        this.budgetService = budgetService;
+        this.reportService = reportService;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread thread = new Thread(r, "moneymind-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Generic submission
+    public <T> CompletableFuture<T> submit(Query<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (result.isDone()) {
+                    return; // Cancelled while waiting in the queue
+                }
+                try {
+                    result.complete(query.run());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+                // Free its queue slot now rather than when a worker reaches it
+                executor.remove((Runnable) task);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Submits a query that supersedes any earlier query with the same key.
+     * The earlier one is cancelled and its result will never be delivered.
+     */
+    public <T> CompletableFuture<T> submitLatest(String key, Query<T> query) {
+        CompletableFuture<T> result = submit(query);
+        CompletableFuture<?> previous = latestByKey.put(key, result);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        result.whenComplete((value, error) -> latestByKey.remove(key, result));
+        return result;
+    }
+
+    /**
+     * Delivers the outcome of a future on the EDT. Cancelled (superseded)
+     * futures are dropped silently.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onError.accept(unwrap(error));
+                }
+            });
+        });
+    }
+
+    // Transactions
+    public CompletableFuture<List<Transaction>> getAllTransactions() {
+        return submitLatest("transactions.view", transactionService::getAllTransactions);
+    }
+
+    /**
+     * The whole ledger, loaded and sorted on the worker.
+     */
+    public CompletableFuture<List<Transaction>> getAllTransactionsSorted(TransactionSorter.SortBy sortBy,
+                                                                        TransactionSorter.SortOrder order) {
+        return submitLatest("transactions.view", () -> {
+            List<Transaction> transactions = transactionService.getAllTransactions();
+            TransactionSorter.sort(transactions, sortBy, order);
+            return transactions;
+        });
+    }
+
+    public CompletableFuture<List<Transaction>> searchTransactions(String keyword) {
+        return submitLatest("transactions.view", () -> transactionService.searchTransactions(keyword));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsByType(Transaction.TransactionType type) {
+        return submitLatest("transactions.view", () -> transactionService.getTransactionsByType(type));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
+        return submitLatest("transactions.view", () -> transactionService.getTransactionsByDateRange(startDate, endDate));
+    }
+
+    public CompletableFuture<TransactionService.LedgerTotals> getLedgerTotals() {
+        return submitLatest("transactions.view", transactionService::getLedgerTotals);
+    }
+
+    // Ledger pages load side by side, so they are not superseded by key
+    public CompletableFuture<List<Transaction>> getTransactionsPageAfter(TransactionService.PageKey after, int limit) {
+        return submit(() -> transactionService.getTransactionsPageAfter(after, limit));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsPageAfter(TransactionService.PageKey after,
+                                                                        int skip, int limit) {
+        return submit(() -> transactionService.getTransactionsPageAfter(after, skip, limit));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsPageAt(int offset, int limit) {
+        return submit(() -> transactionService.getTransactionsPageAt(offset, limit));
+    }
+
+    /**
+     * Streams every transaction to a CSV file.
+     *
+     * @return the number of transactions written
+     */
+    public CompletableFuture<Long> exportTransactionsCsv(Path file) {
+        return submit(() -> transactionService.exportToCsv(file));
+    }
+
+    // Maintenance
+    public CompletableFuture<Void> rebuildDailyAggregates() {
+        return submit(() -> {
+            DatabaseManager.getInstance().rebuildDailyAggregates();
+            return null;
+        });
+    }
+
+    // Budgets
+    public CompletableFuture<List<Budget>> getActiveBudgets() {
+        return submitLatest("budgets.active", budgetService::getActiveBudgets);
+    }
+
+    // Categories
+    public CompletableFuture<List<Category>> refreshCategories() {
+        return submitLatest("categories.all", () -> {
+            categoryService.syncCategoryTree();
+            return categoryService.getAllCategories();
+        });
+    }
+
+    // Reports
+    public CompletableFuture<ReportService.FinancialSummary> generateMonthlySummary(int year, int month) {
+        return submitLatest("reports.summary", () -> reportService.generateMonthlySummary(year, month));
+    }
+
+    public CompletableFuture<ReportService.FinancialSummary> generateYearlySummary(int year) {
+        return submitLatest("reports.summary", () -> reportService.generateYearlySummary(year));
+    }
+
+    public CompletableFuture<ReportService.CategoryAnalysis> generateCategoryAnalysis(LocalDate startDate, LocalDate endDate) {
+        return submitLatest("reports.category", () -> reportService.generateCategoryAnalysis(startDate, endDate));
+    }
+
+    public CompletableFuture<ReportService.TrendAnalysis> generateTrendAnalysis(LocalDate startDate, LocalDate endDate) {
+        return submitLatest("reports.trend", () -> reportService.generateTrendAnalysis(startDate, endDate));
+    }
+
+    public CompletableFuture<ReportService.BudgetAnalysis> generateBudgetAnalysis() {
+        return submitLatest("reports.budget", reportService::generateBudgetAnalysis);
+    }
+
+    public CompletableFuture<ReportService.FinancialHealthScore> calculateFinancialHealth(LocalDate startDate, LocalDate endDate) {
+        return submitLatest("reports.health", () -> reportService.calculateFinancialHealth(startDate, endDate));
+    }
+
+    public void shutdown() {
+        for (CompletableFuture<?> future : latestByKey.values()) {
+            future.cancel(true);
+        }
+        executor.shutdownNow();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+}
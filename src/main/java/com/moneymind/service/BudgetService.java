@@ -1,7 +1,9 @@
 package main.java.com.moneymind.service;
 
 import main.java.com.moneymind.database.DatabaseManager;
+import main.java.com.moneymind.datastructures.BudgetIntervalIndex;
 import main.java.com.moneymind.model.Budget;
+import main.java.com.moneymind.model.Money;
 import main.java.com.moneymind.model.Transaction;
 import java.math.BigDecimal;
 import java.sql.*;
@@ -13,27 +15,48 @@ import java.util.List;
  * Service class for Budget CRUD operations and budget tracking
  */
 public class BudgetService {
+    // Budgets with their spent amount resolved in the same query: each budget's
+    // date window is range-joined against the per-day aggregates of its category
+    // and every subcategory below it, so a parent budget counts its children's
+    // spending. The subtree CTE starts only from budgeted categories, and UNION
+    // stops it on a cycle in the parent links.
+    // Formatted with the WHERE clause and the ORDER BY / LIMIT tail.
+    private static final String SELECT_WITH_SPENT = """
+        WITH RECURSIVE budget_subtree(root_id, category_id) AS (
+            SELECT DISTINCT category_id, category_id FROM budgets
+            UNION
+            SELECT s.root_id, c.id FROM categories c JOIN budget_subtree s ON c.parent_id = s.category_id
+        )
+        SELECT b.*, c.name as category_name, COALESCE(SUM(a.total_cents), 0) as spent_cents
+        FROM budgets b
+        JOIN categories c ON b.category_id = c.id
+        LEFT JOIN budget_subtree s ON s.root_id = b.category_id
+        LEFT JOIN daily_aggregates a
+            ON a.category_id = s.category_id AND a.day BETWEEN b.start_date AND b.end_date
+        %s
+        GROUP BY b.id
+        %s
+    """;
+
     private DatabaseManager dbManager;
-    private TransactionService transactionService;
 
     public BudgetService() {
         this.dbManager = DatabaseManager.getInstance();
-        this.transactionService = new TransactionService();
     }
 
     // Create operations
     public Long addBudget(Budget budget) throws SQLException {
         String sql = """
-            INSERT INTO budgets (category_id, amount, period, start_date, end_date)
+            INSERT INTO budgets (category_id, amount_cents, period, start_date, end_date)
             VALUES (?, ?, ?, ?, ?)
         """;
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setLong(1, budget.getCategoryId());
-            stmt.setBigDecimal(2, budget.getAmount());
+            stmt.setLong(2, budget.getAmountCents());
             stmt.setString(3, budget.getPeriod().name());
-            stmt.setDate(4, Date.valueOf(budget.getStartDate()));
-            stmt.setDate(5, Date.valueOf(budget.getEndDate()));
+            stmt.setLong(4, budget.getStartDate().toEpochDay());
+            stmt.setLong(5, budget.getEndDate().toEpochDay());
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
@@ -41,6 +64,7 @@ public class BudgetService {
                 if (generatedKeys.next()) {
                     Long id = generatedKeys.getLong(1);
                     budget.setId(id);
+                    budgetTracker().budgetSaved(id);
                     return id;
                 }
             }
@@ -50,42 +74,28 @@ public class BudgetService {
 
     // Read operations
     public Budget getBudgetById(Long id) throws SQLException {
-        String sql = """
-            SELECT b.*, c.name as category_name 
-            FROM budgets b
-            JOIN categories c ON b.category_id = c.id
-            WHERE b.id = ?
-        """;
+        String sql = SELECT_WITH_SPENT.formatted("WHERE b.id = ?", "");
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                Budget budget = mapResultSetToBudget(rs);
-                updateBudgetSpentAmount(budget);
-                return budget;
+                return mapResultSetToBudget(rs);
             }
             return null;
         }
     }
 
     public List<Budget> getAllBudgets() throws SQLException {
-        String sql = """
-            SELECT b.*, c.name as category_name 
-            FROM budgets b
-            JOIN categories c ON b.category_id = c.id
-            ORDER BY b.start_date DESC
-        """;
+        String sql = SELECT_WITH_SPENT.formatted("", "ORDER BY b.start_date DESC");
 
         List<Budget> budgets = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Budget budget = mapResultSetToBudget(rs);
-                updateBudgetSpentAmount(budget);
-                budgets.add(budget);
+                budgets.add(mapResultSetToBudget(rs));
             }
         }
         return budgets;
@@ -93,118 +103,82 @@ public class BudgetService {
 
     public List<Budget> getActiveBudgets() throws SQLException {
         LocalDate today = LocalDate.now();
-        String sql = """
-            SELECT b.*, c.name as category_name 
-            FROM budgets b
-            JOIN categories c ON b.category_id = c.id
-            WHERE b.start_date <= ? AND b.end_date >= ?
-            ORDER BY b.start_date DESC
-        """;
+        String sql = SELECT_WITH_SPENT.formatted(
+                "WHERE b.start_date <= ? AND b.end_date >= ?", "ORDER BY b.start_date DESC");
 
         List<Budget> budgets = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(today));
-            stmt.setDate(2, Date.valueOf(today));
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setLong(1, today.toEpochDay());
+            stmt.setLong(2, today.toEpochDay());
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Budget budget = mapResultSetToBudget(rs);
-                updateBudgetSpentAmount(budget);
-                budgets.add(budget);
+                budgets.add(mapResultSetToBudget(rs));
             }
         }
         return budgets;
     }
 
     public List<Budget> getBudgetsByCategory(Long categoryId) throws SQLException {
-        String sql = """
-            SELECT b.*, c.name as category_name 
-            FROM budgets b
-            JOIN categories c ON b.category_id = c.id
-            WHERE b.category_id = ?
-            ORDER BY b.start_date DESC
-        """;
+        String sql = SELECT_WITH_SPENT.formatted("WHERE b.category_id = ?", "ORDER BY b.start_date DESC");
 
         List<Budget> budgets = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, categoryId);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Budget budget = mapResultSetToBudget(rs);
-                updateBudgetSpentAmount(budget);
-                budgets.add(budget);
+                budgets.add(mapResultSetToBudget(rs));
             }
         }
         return budgets;
     }
 
     public List<Budget> getBudgetsByPeriod(Budget.BudgetPeriod period) throws SQLException {
-        String sql = """
-            SELECT b.*, c.name as category_name 
-            FROM budgets b
-            JOIN categories c ON b.category_id = c.id
-            WHERE b.period = ?
-            ORDER BY b.start_date DESC
-        """;
+        String sql = SELECT_WITH_SPENT.formatted("WHERE b.period = ?", "ORDER BY b.start_date DESC");
 
         List<Budget> budgets = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setString(1, period.name());
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Budget budget = mapResultSetToBudget(rs);
-                updateBudgetSpentAmount(budget);
-                budgets.add(budget);
+                budgets.add(mapResultSetToBudget(rs));
             }
         }
         return budgets;
     }
 
+    // Over/near-limit checks are answered from the in-memory tracker
     public List<Budget> getOverBudgets() throws SQLException {
-        List<Budget> allBudgets = getAllBudgets();
-        List<Budget> overBudgets = new ArrayList<>();
-
-        for (Budget budget : allBudgets) {
-            if (budget.isOverBudget()) {
-                overBudgets.add(budget);
-            }
-        }
-
-        return overBudgets;
+        return budgetTracker().getOverBudgets();
     }
 
     public List<Budget> getNearLimitBudgets(double percentage) throws SQLException {
-        List<Budget> allBudgets = getAllBudgets();
-        List<Budget> nearLimitBudgets = new ArrayList<>();
-
-        for (Budget budget : allBudgets) {
-            if (budget.isNearLimit(percentage) && !budget.isOverBudget()) {
-                nearLimitBudgets.add(budget);
-            }
-        }
-
-        return nearLimitBudgets;
+        return budgetTracker().getNearLimitBudgets(percentage);
     }
 
     // Update operations
     public boolean updateBudget(Budget budget) throws SQLException {
         String sql = """
             UPDATE budgets 
-            SET category_id = ?, amount = ?, period = ?, start_date = ?, end_date = ?
+            SET category_id = ?, amount_cents = ?, period = ?, start_date = ?, end_date = ?
             WHERE id = ?
         """;
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
             stmt.setLong(1, budget.getCategoryId());
-            stmt.setBigDecimal(2, budget.getAmount());
+            stmt.setLong(2, budget.getAmountCents());
             stmt.setString(3, budget.getPeriod().name());
-            stmt.setDate(4, Date.valueOf(budget.getStartDate()));
-            stmt.setDate(5, Date.valueOf(budget.getEndDate()));
+            stmt.setLong(4, budget.getStartDate().toEpochDay());
+            stmt.setLong(5, budget.getEndDate().toEpochDay());
             stmt.setLong(6, budget.getId());
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                budgetTracker().budgetSaved(budget.getId());
+            }
+            return updated;
         }
     }
 
@@ -214,7 +188,11 @@ public class BudgetService {
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                budgetTracker().budgetDeleted(id);
+            }
+            return deleted;
         }
     }
 
@@ -223,7 +201,9 @@ public class BudgetService {
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
             stmt.setLong(1, categoryId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            budgetTracker().invalidate();
+            return deleted;
         }
     }
 
@@ -232,49 +212,29 @@ public class BudgetService {
         String sql = "DELETE FROM budgets WHERE end_date < ?";
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(today));
-            return stmt.executeUpdate();
+            stmt.setLong(1, today.toEpochDay());
+            int deleted = stmt.executeUpdate();
+            budgetTracker().invalidate();
+            return deleted;
         }
     }
 
     // Budget analysis methods
     public Budget getCurrentBudgetForCategory(Long categoryId) throws SQLException {
-        LocalDate today = LocalDate.now();
-        String sql = """
-            SELECT b.*, c.name as category_name 
-            FROM budgets b
-            JOIN categories c ON b.category_id = c.id
-            WHERE b.category_id = ? AND b.start_date <= ? AND b.end_date >= ?
-            ORDER BY b.start_date DESC
-            LIMIT 1
-        """;
-
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setLong(1, categoryId);
-            stmt.setDate(2, Date.valueOf(today));
-            stmt.setDate(3, Date.valueOf(today));
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                Budget budget = mapResultSetToBudget(rs);
-                updateBudgetSpentAmount(budget);
-                return budget;
-            }
-            return null;
-        }
+        return budgetTracker().getCurrentBudget(categoryId);
     }
 
     public BigDecimal getTotalBudgetAmount() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM budgets WHERE start_date <= ? AND end_date >= ?";
+        String sql = "SELECT COALESCE(SUM(amount_cents), 0) FROM budgets WHERE start_date <= ? AND end_date >= ?";
         LocalDate today = LocalDate.now();
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(today));
-            stmt.setDate(2, Date.valueOf(today));
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setLong(1, today.toEpochDay());
+            stmt.setLong(2, today.toEpochDay());
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return Money.toBigDecimal(rs.getLong(1));
             }
             return BigDecimal.ZERO;
         }
@@ -282,13 +242,13 @@ public class BudgetService {
 
     public BigDecimal getTotalSpentAmount() throws SQLException {
         List<Budget> activeBudgets = getActiveBudgets();
-        BigDecimal totalSpent = BigDecimal.ZERO;
+        long totalSpentCents = 0;
 
         for (Budget budget : activeBudgets) {
-            totalSpent = totalSpent.add(budget.getSpent());
+            totalSpentCents += budget.getSpentCents();
         }
 
-        return totalSpent;
+        return Money.toBigDecimal(totalSpentCents);
     }
 
     public double getOverallBudgetUsage() throws SQLException {
@@ -306,8 +266,11 @@ public class BudgetService {
 
     // Budget recommendations and alerts
     public List<String> getBudgetAlerts() throws SQLException {
+        return getBudgetAlerts(budgetTracker().getActiveBudgets());
+    }
+
+    public List<String> getBudgetAlerts(List<Budget> activeBudgets) {
         List<String> alerts = new ArrayList<>();
-        List<Budget> activeBudgets = getActiveBudgets();
 
         for (Budget budget : activeBudgets) {
             if (budget.isOverBudget()) {
@@ -360,30 +323,15 @@ public class BudgetService {
     }
 
     public boolean budgetExistsForPeriod(Long categoryId, LocalDate startDate, LocalDate endDate) throws SQLException {
-        String sql = """
-            SELECT COUNT(*) FROM budgets 
-            WHERE category_id = ? AND (
-                (start_date <= ? AND end_date >= ?) OR 
-                (start_date <= ? AND end_date >= ?) OR
-                (start_date >= ? AND end_date <= ?)
-            )
-        """;
-
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setLong(1, categoryId);
-            stmt.setDate(2, Date.valueOf(startDate));
-            stmt.setDate(3, Date.valueOf(startDate));
-            stmt.setDate(4, Date.valueOf(endDate));
-            stmt.setDate(5, Date.valueOf(endDate));
-            stmt.setDate(6, Date.valueOf(startDate));
-            stmt.setDate(7, Date.valueOf(endDate));
+        return budgetTracker().hasOverlap(categoryId, startDate, endDate, null);
+    }
 
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-            return false;
-        }
+    /**
+     * Index of all budgets by category and date window, kept in sync with
+     * this service's writes.
+     */
+    public BudgetIntervalIndex getBudgetIndex() throws SQLException {
+        return budgetTracker().getIndex();
     }
 
     // Budget performance analysis
@@ -545,13 +493,8 @@ public class BudgetService {
     }
 
     // Private helper methods
-    private void updateBudgetSpentAmount(Budget budget) throws SQLException {
-        BigDecimal spent = transactionService.getTotalForCategory(
-                budget.getCategoryId(),
-                budget.getStartDate(),
-                budget.getEndDate()
-        );
-        budget.setSpent(spent);
+    private static BudgetTracker budgetTracker() {
+        return BudgetTracker.getInstance();
     }
 
     private Budget mapResultSetToBudget(ResultSet rs) throws SQLException {
@@ -559,10 +502,11 @@ public class BudgetService {
         budget.setId(rs.getLong("id"));
         budget.setCategoryId(rs.getLong("category_id"));
         budget.setCategoryName(rs.getString("category_name"));
-        budget.setAmount(rs.getBigDecimal("amount"));
+        budget.setAmountCents(rs.getLong("amount_cents"));
         budget.setPeriod(Budget.BudgetPeriod.valueOf(rs.getString("period")));
-        budget.setStartDate(rs.getDate("start_date").toLocalDate());
-        budget.setEndDate(rs.getDate("end_date").toLocalDate());
+        budget.setStartDate(LocalDate.ofEpochDay(rs.getLong("start_date")));
+        budget.setEndDate(LocalDate.ofEpochDay(rs.getLong("end_date")));
+        budget.setSpentCents(rs.getLong("spent_cents"));
 
         return budget;
     }
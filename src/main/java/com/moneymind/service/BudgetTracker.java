@@ -0,0 +1,375 @@
+package main.java.com.moneymind.service;
+
+import main.java.com.moneymind.database.ConnectionLease;
+import main.java.com.moneymind.database.DatabaseManager;
+import main.java.com.moneymind.datastructures.BudgetIntervalIndex;
+import main.java.com.moneymind.model.Budget;
+import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.model.Transaction;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Keeps every budget and its spent amount in memory and updates the spent
+ * totals from transaction events instead of re-querying. Budgets are held in
+ * a BudgetIntervalIndex, so the budgets whose category and date window
+ * contain a changed transaction are found without touching the database.
+ * A transaction counts toward the budgets of its category and of every
+ * ancestor category, following parent links taken from the category tree.
+ * Crossing the near-limit (90%) or over-limit (100%) threshold is reported to
+ * alert listeners as the change happens.
+ *
+ * Budgets are loaded on first use, patched as BudgetService saves or deletes
+ * single budgets, and reloaded after bulk changes (see {@link #invalidate()}).
+ *
+ * Events arrive after their write has committed, so a load can already
+ * include a row whose event is still on its way. Loads therefore hold the
+ * writer connection, which no write can commit without, and note the last
+ * event sequence number; events numbered at or below it are skipped. The
+ * writer is always taken before the tracker's own lock, the order in which
+ * events are delivered.
+ */
+public class BudgetTracker implements TransactionEvents.Listener {
+    public static final int NEAR_LIMIT_PERCENT = 90;
+    public static final int OVER_LIMIT_PERCENT = 100;
+
+    private static final int[] THRESHOLDS = {NEAR_LIMIT_PERCENT, OVER_LIMIT_PERCENT};
+
+    /**
+     * Called on the thread that wrote the transaction, never inside the
+     * tracker's lock.
+     */
+    @FunctionalInterface
+    public interface AlertListener {
+        void thresholdCrossed(Budget budget, int thresholdPercent);
+    }
+
+    // A crossing found under the lock, delivered after it is released
+    private static class Crossing {
+        private final Budget budget;
+        private final int threshold;
+
+        Crossing(Budget budget, int threshold) {
+            this.budget = budget;
+            this.threshold = threshold;
+        }
+    }
+
+    private static BudgetTracker instance;
+
+    private final BudgetService budgetService;
+    private final CategoryService categoryService;
+    private final List<AlertListener> alertListeners = new CopyOnWriteArrayList<>();
+
+    private final DatabaseManager dbManager = DatabaseManager.getInstance();
+    private final TransactionEvents events = TransactionEvents.getInstance();
+
+    private final BudgetIntervalIndex index = new BudgetIntervalIndex();
+    private Map<Long, Long> parentIds = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Last event sequence already reflected by the full load, and by single budgets re-read since
+    private long loadedSequence;
+    private final Map<Long, Long> budgetSequences = new HashMap<>();
+
+    BudgetTracker(BudgetService budgetService, CategoryService categoryService) {
+        this.budgetService = budgetService;
+        this.categoryService = categoryService;
+    }
+
+    public static synchronized BudgetTracker getInstance() {
+        if (instance == null) {
+            ServiceRegistry services = ServiceRegistry.getInstance();
+            instance = new BudgetTracker(services.getBudgetService(), services.getCategoryService());
+            instance.events.addListener(instance);
+        }
+        return instance;
+    }
+
+    public void addAlertListener(AlertListener listener) {
+        alertListeners.add(listener);
+    }
+
+    public void removeAlertListener(AlertListener listener) {
+        alertListeners.remove(listener);
+    }
+
+    // Queries, answered from memory. Returned budgets are copies.
+    public List<Budget> getActiveBudgets() throws SQLException {
+        LocalDate today = LocalDate.now();
+        return select(budget -> contains(budget, today));
+    }
+
+    public List<Budget> getOverBudgets() throws SQLException {
+        return select(Budget::isOverBudget);
+    }
+
+    public List<Budget> getNearLimitBudgets(double percentage) throws SQLException {
+        return select(budget -> budget.isNearLimit(percentage) && !budget.isOverBudget());
+    }
+
+    /**
+     * The budget of the category that covers today, preferring the one that
+     * started last, or null.
+     */
+    public Budget getCurrentBudget(Long categoryId) throws SQLException {
+        ensureLoaded();
+        synchronized (this) {
+            Budget current = null;
+            for (Budget budget : index.findCovering(categoryId, LocalDate.now())) {
+                if (current == null || budget.getStartDate().isAfter(current.getStartDate())) {
+                    current = budget;
+                }
+            }
+            return current != null ? copy(current) : null;
+        }
+    }
+
+    public boolean hasOverlap(Long categoryId, LocalDate startDate, LocalDate endDate,
+                              Long excludeBudgetId) throws SQLException {
+        ensureLoaded();
+        return index.hasOverlap(categoryId, startDate, endDate, excludeBudgetId);
+    }
+
+    /**
+     * The loaded index, for read-only lookups such as overlap validation.
+     */
+    public BudgetIntervalIndex getIndex() throws SQLException {
+        ensureLoaded();
+        return index;
+    }
+
+    // Keeping in sync with budget writes
+    public void budgetSaved(Long budgetId) {
+        if (!loaded) {
+            return;
+        }
+        // The budget's spent total is re-read, so it needs the same guard as a full load
+        try {
+            ConnectionLease writer = dbManager.borrowWriteConnection();
+            try {
+                synchronized (this) {
+                    if (!loaded) {
+                        return;
+                    }
+                    Budget budget = budgetService.getBudgetById(budgetId);
+                    if (budget != null) {
+                        index.insert(budget);
+                        budgetSequences.put(budgetId, events.lastSequence());
+                    } else {
+                        index.remove(budgetId);
+                        budgetSequences.remove(budgetId);
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error refreshing budget " + budgetId + ": " + e.getMessage());
+            invalidate();
+        }
+    }
+
+    public synchronized void budgetDeleted(Long budgetId) {
+        index.remove(budgetId);
+        budgetSequences.remove(budgetId);
+    }
+
+    /**
+     * Marks the budgets as stale so the next query reloads them. Call after
+     * bulk budget changes or any category change.
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    // TransactionEvents.Listener
+    @Override
+    public void transactionAdded(Transaction transaction, long sequence) {
+        apply(transaction, null, sequence);
+    }
+
+    @Override
+    public void transactionUpdated(Transaction before, Transaction after, long sequence) {
+        apply(after, before, sequence);
+    }
+
+    @Override
+    public void transactionDeleted(Transaction transaction, long sequence) {
+        apply(null, transaction, sequence);
+    }
+
+    @Override
+    public void transactionsReset() {
+        if (!loaded) {
+            return; // Nothing to compare against; the next query loads fresh
+        }
+        List<Crossing> crossings = new ArrayList<>();
+        try {
+            ConnectionLease writer = dbManager.borrowWriteConnection();
+            try {
+                synchronized (this) {
+                    if (!loaded) {
+                        return;
+                    }
+                    Map<Long, Long> previousSpent = new HashMap<>();
+                    Map<Long, Long> previousAmount = new HashMap<>();
+                    for (Budget budget : index.getAll()) {
+                        previousSpent.put(budget.getId(), budget.getSpentCents());
+                        previousAmount.put(budget.getId(), budget.getAmountCents());
+                    }
+
+                    reload();
+
+                    for (Budget budget : index.getAll()) {
+                        Long spent = previousSpent.get(budget.getId());
+                        if (spent != null && previousAmount.get(budget.getId()) == budget.getAmountCents()) {
+                            collectCrossings(budget, spent, crossings);
+                        }
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reloading budgets: " + e.getMessage());
+            invalidate();
+            return;
+        }
+        notifyListeners(crossings);
+    }
+
+    // Private helper methods
+    private void apply(Transaction added, Transaction removed, long sequence) {
+        List<Crossing> crossings = new ArrayList<>();
+        synchronized (this) {
+            if (!loaded || sequence <= loadedSequence) {
+                return; // Loaded lazily with current totals, or the load already saw this write
+            }
+            // Undo the old row first so a move between budgets is seen in one step
+            Set<Budget> touched = new LinkedHashSet<>();
+            Map<Budget, Long> spentBefore = new HashMap<>();
+            adjust(removed, -1, sequence, touched, spentBefore);
+            adjust(added, 1, sequence, touched, spentBefore);
+
+            for (Budget budget : touched) {
+                collectCrossings(budget, spentBefore.get(budget), crossings);
+            }
+        }
+        notifyListeners(crossings);
+    }
+
+    private void adjust(Transaction transaction, int sign, long sequence,
+                        Set<Budget> touched, Map<Budget, Long> spentBefore) {
+        if (transaction == null) {
+            return;
+        }
+        // The transaction's own category, then each ancestor up to the root
+        for (Long categoryId = transaction.getCategoryId(); categoryId != null; categoryId = parentIds.get(categoryId)) {
+            for (Budget budget : index.findCovering(categoryId, transaction.getTransactionDate())) {
+                Long refreshed = budgetSequences.get(budget.getId());
+                if (refreshed != null && sequence <= refreshed) {
+                    continue; // Re-read after this write; its spent total already has it
+                }
+                spentBefore.putIfAbsent(budget, budget.getSpentCents());
+                touched.add(budget);
+                budget.setSpentCents(budget.getSpentCents() + sign * transaction.getAmountCents());
+            }
+        }
+    }
+
+    private void collectCrossings(Budget budget, long previousSpentCents, List<Crossing> crossings) {
+        long amount = budget.getAmountCents();
+        if (amount <= 0) {
+            return;
+        }
+        // Report only the highest threshold crossed upwards by this change
+        for (int i = THRESHOLDS.length - 1; i >= 0; i--) {
+            int threshold = THRESHOLDS[i];
+            boolean wasBelow = previousSpentCents * 100 < amount * threshold;
+            boolean nowAtOrAbove = budget.getSpentCents() * 100 >= amount * threshold;
+            if (wasBelow && nowAtOrAbove) {
+                crossings.add(new Crossing(copy(budget), threshold));
+                return;
+            }
+        }
+    }
+
+    private void notifyListeners(List<Crossing> crossings) {
+        for (Crossing crossing : crossings) {
+            for (AlertListener listener : alertListeners) {
+                try {
+                    listener.thresholdCrossed(crossing.budget, crossing.threshold);
+                } catch (RuntimeException e) {
+                    System.err.println("Budget alert listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<Budget> select(Predicate<Budget> filter) throws SQLException {
+        ensureLoaded();
+        List<Budget> result = new ArrayList<>();
+        synchronized (this) {
+            for (Budget budget : index.getAll()) {
+                if (filter.test(budget)) {
+                    result.add(copy(budget));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(Budget::getStartDate).reversed());
+        return result;
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        ConnectionLease writer = dbManager.borrowWriteConnection();
+        try {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    // Caller holds the writer connection and the tracker's lock
+    private void reload() throws SQLException {
+        loadedSequence = events.lastSequence();
+        budgetSequences.clear();
+        categoryService.syncCategoryTree();
+        Map<Long, Long> parents = new HashMap<>();
+        for (Category category : categoryService.getCategoryTree().getPreorder()) {
+            if (category.getParent() != null) {
+                parents.put(category.getId(), category.getParent().getId());
+            }
+        }
+        parentIds = parents;
+        index.build(budgetService.getAllBudgets());
+        loaded = true;
+    }
+
+    private static boolean contains(Budget budget, LocalDate date) {
+        return !date.isBefore(budget.getStartDate()) && !date.isAfter(budget.getEndDate());
+    }
+
+    private static Budget copy(Budget budget) {
+        Budget copy = new Budget();
+        copy.setId(budget.getId());
+        copy.setCategoryId(budget.getCategoryId());
+        copy.setCategoryName(budget.getCategoryName());
+        copy.setAmountCents(budget.getAmountCents());
+        copy.setPeriod(budget.getPeriod());
+        copy.setStartDate(budget.getStartDate());
+        copy.setEndDate(budget.getEndDate());
+        copy.setSpentCents(budget.getSpentCents());
+        return copy;
+    }
+}
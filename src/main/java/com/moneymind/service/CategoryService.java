@@ -5,14 +5,30 @@ import main.java.com.moneymind.model.Category;
 import main.java.com.moneymind.datastructures.CategoryTree;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Service class for Category CRUD operations and tree management
+ * Service class for Category CRUD operations and tree management.
+ *
+ * The application shares one instance through ServiceRegistry, so the tree is
+ * loaded once. It is safe to read from any thread: CategoryTree synchronizes
+ * its methods, writes patch it in place, and reloads build a new tree off to
+ * the side before swapping it in.
  */
 public class CategoryService {
+    // The category bound to the parameter and every category below it. UNION
+    // rather than UNION ALL, so a cycle in the parent links cannot loop.
+    private static final String SUBTREE_CTE = """
+        WITH RECURSIVE subtree(id) AS (
+            SELECT ?
+            UNION
+            SELECT c.id FROM categories c JOIN subtree s ON c.parent_id = s.id
+        )
+    """;
+
     private DatabaseManager dbManager;
-    private CategoryTree categoryTree;
+    private volatile CategoryTree categoryTree;
 
     public CategoryService() {
         this.dbManager = DatabaseManager.getInstance();
@@ -40,9 +56,9 @@ public class CategoryService {
                     Long id = generatedKeys.getLong(1);
                     category.setId(id);
 
-                    // Add to tree
+                    // Add to tree under its parent
                     categoryTree.insert(category);
-                    loadCategoryTree(); // Rebuild tree to ensure hierarchy
+                    BudgetTracker.getInstance().invalidate(); // Parent budgets roll up the new category
 
                     return id;
                 }
@@ -61,7 +77,7 @@ public class CategoryService {
         // Fallback to database if not in tree
         String sql = "SELECT * FROM categories WHERE id = ?";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -81,7 +97,7 @@ public class CategoryService {
         // Fallback to database
         String sql = "SELECT * FROM categories WHERE name = ? COLLATE NOCASE";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setString(1, name);
             ResultSet rs = stmt.executeQuery();
 
@@ -116,8 +132,32 @@ public class CategoryService {
         return categoryTree.searchByPattern(pattern);
     }
 
+    /**
+     * Autocomplete for category pickers: up to limit categories of the type
+     * (any type if null) whose name, name words or path start with the prefix.
+     */
+    public List<Category> completeCategories(String prefix, Category.CategoryType type, int limit) {
+        return categoryTree.complete(prefix, limit, category -> type == null || category.getType() == type);
+    }
+
+    /**
+     * The category of the given type with this exact name, ignoring case.
+     */
+    public Category findCategoryByName(String name, Category.CategoryType type) {
+        for (Category category : categoryTree.searchAllByName(name)) {
+            if (category.getType() == type) {
+                return category;
+            }
+        }
+        return null;
+    }
+
     // Update operations
     public boolean updateCategory(Category category) throws SQLException {
+        if (category.getParentId() != null && categoryTree.isInSubtree(category.getId(), category.getParentId())) {
+            throw new SQLException("Cannot move a category under itself or its subcategories");
+        }
+
         String sql = "UPDATE categories SET name = ?, parent_id = ?, type = ? WHERE id = ?";
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
@@ -132,7 +172,10 @@ public class CategoryService {
 
             boolean updated = stmt.executeUpdate() > 0;
             if (updated) {
-                loadCategoryTree(); // Rebuild tree
+                if (!categoryTree.update(category)) {
+                    loadCategoryTree(); // Not in the tree, so the tree is out of date
+                }
+                BudgetTracker.getInstance().invalidate(); // Budgets carry the category name
             }
             return updated;
         }
@@ -157,30 +200,49 @@ public class CategoryService {
             stmt.setLong(1, id);
             boolean deleted = stmt.executeUpdate() > 0;
             if (deleted) {
-                loadCategoryTree(); // Rebuild tree
+                categoryTree.remove(id);
+                BudgetTracker.getInstance().invalidate(); // Budgets are deleted with the category
             }
             return deleted;
         }
     }
 
+    /**
+     * Deletes the category and its whole subtree with two set-based statements
+     * in one transaction, after a single usage check over the recursive subtree
+     * query. Fails if any category in the subtree has transactions.
+     */
     public boolean deleteCategoryAndSubcategories(Long id) throws SQLException {
-        // Check if any category in the subtree has transactions
-        Category category = getCategoryById(id);
-        if (category != null && hasTransactionsInSubtree(category)) {
-            throw new SQLException("Cannot delete category tree with existing transactions");
-        }
-
-        String sql = "DELETE FROM categories WHERE id = ? OR parent_id = ?";
+        // Re-parent every descendant directly under the category first, so the
+        // delete never cascades down a deep chain of parent_id references
+        String flattenSql = SUBTREE_CTE + "UPDATE categories SET parent_id = ? WHERE id IN subtree AND id <> ?";
+        String deleteSql = "DELETE FROM categories WHERE id = ? OR parent_id = ?";
 
         try {
             dbManager.beginTransaction();
 
-            // Delete recursively
-            deleteSubtreeRecursive(id);
+            if (hasTransactionsInSubtree(id)) {
+                throw new SQLException("Cannot delete category tree with existing transactions");
+            }
+
+            try (PreparedStatement stmt = dbManager.prepareStatement(flattenSql)) {
+                stmt.setLong(1, id);
+                stmt.setLong(2, id);
+                stmt.setLong(3, id);
+                stmt.executeUpdate();
+            }
+
+            int deleted;
+            try (PreparedStatement stmt = dbManager.prepareStatement(deleteSql)) {
+                stmt.setLong(1, id);
+                stmt.setLong(2, id);
+                deleted = stmt.executeUpdate();
+            }
 
             dbManager.commitTransaction();
-            loadCategoryTree(); // Rebuild tree
-            return true;
+            categoryTree.removeSubtree(id);
+            BudgetTracker.getInstance().invalidate();
+            return deleted > 0;
 
         } catch (SQLException e) {
             dbManager.rollbackTransaction();
@@ -193,10 +255,39 @@ public class CategoryService {
         return categoryTree;
     }
 
+    /**
+     * Reloads the whole tree from the database.
+     */
     public void refreshCategoryTree() throws SQLException {
         loadCategoryTree();
     }
 
+    /**
+     * Compares the tree's fingerprint with the categories table and reloads
+     * the tree only if they differ, for example after another CategoryService
+     * changed categories. Returns true if the tree was reloaded.
+     */
+    public boolean syncCategoryTree() throws SQLException {
+        String sql = "SELECT id, parent_id, name, type FROM categories";
+
+        long[] stored = new long[2];
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                long parentId = rs.getLong("parent_id");
+                stored[0]++;
+                stored[1] += CategoryTree.rowHash(rs.getLong("id"), rs.wasNull() ? null : parentId,
+                        rs.getString("name"), rs.getString("type"));
+            }
+        }
+
+        if (Arrays.equals(stored, categoryTree.fingerprint())) {
+            return false;
+        }
+        loadCategoryTree();
+        return true;
+    }
+
     public String getCategoryPath(Long categoryId) throws SQLException {
         Category category = getCategoryById(categoryId);
         return category != null ? category.getFullPath() : "";
@@ -208,21 +299,25 @@ public class CategoryService {
     }
 
     public boolean isCategoryAncestor(Long ancestorId, Long descendantId) throws SQLException {
-        Category descendant = getCategoryById(descendantId);
-        while (descendant != null && descendant.getParent() != null) {
-            if (descendant.getParent().getId().equals(ancestorId)) {
-                return true;
-            }
-            descendant = descendant.getParent();
-        }
-        return false;
+        return categoryTree.isAncestor(ancestorId, descendantId);
+    }
+
+    /**
+     * The category and all of its descendants, parents before children.
+     */
+    public List<Category> getCategorySubtree(Long categoryId) throws SQLException {
+        return categoryTree.getSubtree(categoryId);
+    }
+
+    public List<Long> getCategorySubtreeIds(Long categoryId) throws SQLException {
+        return categoryTree.getSubtreeIds(categoryId);
     }
 
     // Validation methods
     public boolean categoryExists(String name, Category.CategoryType type) throws SQLException {
         String sql = "SELECT COUNT(*) FROM categories WHERE name = ? AND type = ? COLLATE NOCASE";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setString(1, name);
             stmt.setString(2, type.name());
             ResultSet rs = stmt.executeQuery();
@@ -237,7 +332,7 @@ public class CategoryService {
     public boolean hasTransactions(Long categoryId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM transactions WHERE category_id = ?";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, categoryId);
             ResultSet rs = stmt.executeQuery();
 
@@ -251,7 +346,7 @@ public class CategoryService {
     public boolean hasSubcategories(Long categoryId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM categories WHERE parent_id = ?";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, categoryId);
             ResultSet rs = stmt.executeQuery();
 
@@ -266,7 +361,10 @@ public class CategoryService {
     private void loadCategoryTree() {
         try {
             List<Category> categories = loadCategoriesFromDatabase();
-            categoryTree.buildHierarchy(categories);
+            // Build off to the side and swap, so readers on other threads never see a half-built tree
+            CategoryTree rebuilt = new CategoryTree();
+            rebuilt.buildHierarchy(categories);
+            categoryTree = rebuilt;
         } catch (SQLException e) {
             System.err.println("Error loading category tree: " + e.getMessage());
         }
@@ -276,7 +374,7 @@ public class CategoryService {
         String sql = "SELECT * FROM categories ORDER BY name";
         List<Category> categories = new ArrayList<>();
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
@@ -287,44 +385,13 @@ public class CategoryService {
         return categories;
     }
 
-    private boolean hasTransactionsInSubtree(Category category) throws SQLException {
-        if (hasTransactions(category.getId())) {
-            return true;
-        }
-
-        for (Category child : category.getChildren()) {
-            if (hasTransactionsInSubtree(child)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private void deleteSubtreeRecursive(Long categoryId) throws SQLException {
-        // First delete all subcategories
-        String selectSubcategoriesSql = "SELECT id FROM categories WHERE parent_id = ?";
-        List<Long> subcategoryIds = new ArrayList<>();
+    private boolean hasTransactionsInSubtree(Long categoryId) throws SQLException {
+        String sql = SUBTREE_CTE + "SELECT EXISTS (SELECT 1 FROM transactions WHERE category_id IN subtree)";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(selectSubcategoriesSql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, categoryId);
             ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                subcategoryIds.add(rs.getLong("id"));
-            }
-        }
-
-        // Recursively delete subcategories
-        for (Long subcategoryId : subcategoryIds) {
-            deleteSubtreeRecursive(subcategoryId);
-        }
-
-        // Finally delete the category itself
-        String deleteSql = "DELETE FROM categories WHERE id = ?";
-        try (PreparedStatement stmt = dbManager.prepareStatement(deleteSql)) {
-            stmt.setLong(1, categoryId);
-            stmt.executeUpdate();
+            return rs.next() && rs.getBoolean(1);
         }
     }
 
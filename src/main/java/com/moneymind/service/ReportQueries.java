@@ -0,0 +1,150 @@
+package main.java.com.moneymind.service;
+
+import main.java.com.moneymind.database.DatabaseManager;
+import main.java.com.moneymind.model.Money;
+import main.java.com.moneymind.model.Transaction;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Aggregation queries behind the reports. Each report is a single GROUP BY
+ * over the daily_aggregates table, and the grouped rows are mapped straight
+ * into the report objects, so no transaction rows reach Java.
+ */
+public class ReportQueries {
+    private static final String TOTALS_BY_TYPE_AND_CATEGORY_SQL = """
+        SELECT a.type, a.category_id, c.name as category_name,
+               SUM(a.total_cents) as total_cents, SUM(a.transaction_count) as transaction_count
+        FROM daily_aggregates a
+        JOIN categories c ON a.category_id = c.id
+        WHERE a.day BETWEEN ? AND ?
+        GROUP BY a.type, a.category_id
+    """;
+
+    // Epoch day + 2440587.5 is the Julian day number SQLite date functions accept
+    private static final String TOTALS_BY_MONTH_SQL = """
+        SELECT strftime('%Y-%m', a.day + 2440587.5) as month,
+               SUM(CASE WHEN a.type = 'INCOME' THEN a.total_cents ELSE 0 END) as income_cents,
+               SUM(CASE WHEN a.type = 'EXPENSE' THEN a.total_cents ELSE 0 END) as expense_cents
+        FROM daily_aggregates a
+        WHERE a.day BETWEEN ? AND ?
+        GROUP BY month
+    """;
+
+    private DatabaseManager dbManager;
+
+    public ReportQueries() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public ReportService.FinancialSummary summarize(String periodType, LocalDate startDate, LocalDate endDate)
+            throws SQLException {
+        long incomeCents = 0;
+        long expenseCents = 0;
+        long incomeTransactionCount = 0;
+        long expenseTransactionCount = 0;
+        Map<String, long[]> categoryCents = new HashMap<>();
+
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(TOTALS_BY_TYPE_AND_CATEGORY_SQL)) {
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                long cents = rs.getLong("total_cents");
+                long count = rs.getLong("transaction_count");
+                if (Transaction.TransactionType.INCOME.name().equals(rs.getString("type"))) {
+                    incomeCents += cents;
+                    incomeTransactionCount += count;
+                } else {
+                    expenseCents += cents;
+                    expenseTransactionCount += count;
+                }
+                categoryCents.computeIfAbsent(rs.getString("category_name"), k -> new long[1])[0] += cents;
+            }
+        }
+
+        Map<String, BigDecimal> categoryTotals = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : categoryCents.entrySet()) {
+            categoryTotals.put(entry.getKey(), Money.toBigDecimal(entry.getValue()[0]));
+        }
+
+        return new ReportService.FinancialSummary(
+                periodType, startDate, endDate,
+                Money.toBigDecimal(incomeCents), Money.toBigDecimal(expenseCents),
+                Money.toBigDecimal(incomeCents - expenseCents),
+                categoryTotals, incomeTransactionCount, expenseTransactionCount,
+                incomeTransactionCount + expenseTransactionCount
+        );
+    }
+
+    /**
+     * One entry per category and transaction type, largest amount first.
+     */
+    public ReportService.CategoryAnalysis analyzeCategories(LocalDate startDate, LocalDate endDate) throws SQLException {
+        List<ReportService.CategoryData> categoryDataList = new ArrayList<>();
+        List<Long> categoryCents = new ArrayList<>();
+        long totalCents = 0;
+
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(TOTALS_BY_TYPE_AND_CATEGORY_SQL)) {
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                long cents = rs.getLong("total_cents");
+                totalCents += cents;
+                categoryCents.add(cents);
+                categoryDataList.add(new ReportService.CategoryData(
+                        rs.getLong("category_id"), rs.getString("category_name"), Money.toBigDecimal(cents),
+                        rs.getInt("transaction_count"),
+                        Transaction.TransactionType.valueOf(rs.getString("type"))));
+            }
+        }
+
+        // Percentages of the overall total, rounded to two decimals
+        if (totalCents > 0) {
+            for (int i = 0; i < categoryDataList.size(); i++) {
+                double percentage = Math.round(categoryCents.get(i) * 10_000.0 / totalCents) / 100.0;
+                categoryDataList.get(i).setPercentage(percentage);
+            }
+        }
+
+        categoryDataList.sort((a, b) -> b.getAmount().compareTo(a.getAmount()));
+
+        return new ReportService.CategoryAnalysis(categoryDataList, Money.toBigDecimal(totalCents), startDate, endDate);
+    }
+
+    /**
+     * Income and expense per month, including empty months in the range.
+     */
+    public List<ReportService.MonthlyData> monthlyTotals(LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<YearMonth, long[]> monthlyCents = new HashMap<>();
+
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(TOTALS_BY_MONTH_SQL)) {
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                monthlyCents.put(YearMonth.parse(rs.getString("month")),
+                        new long[]{rs.getLong("income_cents"), rs.getLong("expense_cents")});
+            }
+        }
+
+        List<ReportService.MonthlyData> monthlyDataList = new ArrayList<>();
+        YearMonth end = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(end); month = month.plusMonths(1)) {
+            long[] totals = monthlyCents.getOrDefault(month, new long[2]);
+            monthlyDataList.add(new ReportService.MonthlyData(month,
+                    Money.toBigDecimal(totals[0]), Money.toBigDecimal(totals[1]),
+                    Money.toBigDecimal(totals[0] - totals[1])));
+        }
+        return monthlyDataList;
+    }
+}
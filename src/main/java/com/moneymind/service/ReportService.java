@@ -1,8 +1,10 @@
 package main.java.com.moneymind.service;
 
+import main.java.com.moneymind.datastructures.CategoryTree;
 import main.java.com.moneymind.model.Transaction;
 import main.java.com.moneymind.model.Category;
 import main.java.com.moneymind.model.Budget;
+import main.java.com.moneymind.model.Money;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -17,11 +19,23 @@ public class ReportService {
     private TransactionService transactionService;
     private CategoryService categoryService;
     private BudgetService budgetService;
+    private ReportQueries reportQueries;
 
+    /**
+     * Uses the shared services from the ServiceRegistry.
+     */
     public ReportService() {
-        this.transactionService = new TransactionService();
-        this.categoryService = new CategoryService();
-        this.budgetService = new BudgetService();
+        this(ServiceRegistry.getInstance().getTransactionService(),
+                ServiceRegistry.getInstance().getCategoryService(),
+                ServiceRegistry.getInstance().getBudgetService());
+    }
+
+    public ReportService(TransactionService transactionService, CategoryService categoryService,
+                         BudgetService budgetService) {
+        this.transactionService = transactionService;
+        this.categoryService = categoryService;
+        this.budgetService = budgetService;
+        this.reportQueries = new ReportQueries();
     }
 
     // Summary Reports
@@ -45,120 +59,78 @@ public class ReportService {
     }
 
     private FinancialSummary generateSummaryForPeriod(LocalDate startDate, LocalDate endDate, String periodType) throws Exception {
-        List<Transaction> transactions = transactionService.getTransactionsByDateRange(startDate, endDate);
-
-        BigDecimal totalIncome = transactions.stream()
-                .filter(Transaction::isIncome)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalExpense = transactions.stream()
-                .filter(Transaction::isExpense)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal netAmount = totalIncome.subtract(totalExpense);
-
-        // Category breakdown
-        Map<String, BigDecimal> categoryTotals = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategoryName,
-                        Collectors.mapping(Transaction::getAmount,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                ));
-
-        // Transaction counts
-        long incomeTransactionCount = transactions.stream().filter(Transaction::isIncome).count();
-        long expenseTransactionCount = transactions.stream().filter(Transaction::isExpense).count();
-
-        return new FinancialSummary(
-                periodType, startDate, endDate,
-                totalIncome, totalExpense, netAmount,
-                categoryTotals, incomeTransactionCount, expenseTransactionCount,
-                transactions.size()
-        );
+        return reportQueries.summarize(periodType, startDate, endDate);
     }
 
     // Category Analysis
+    /**
+     * Per-category totals laid out along the category hierarchy: parents
+     * before their subcategories, each row also carrying the total of its
+     * whole subtree. Parents with no spending of their own still get a row
+     * when a subcategory has some.
+     */
     public CategoryAnalysis generateCategoryAnalysis(LocalDate startDate, LocalDate endDate) throws Exception {
-        List<Transaction> transactions = transactionService.getTransactionsByDateRange(startDate, endDate);
-
-        // Group by category
-        Map<String, List<Transaction>> categoryGroups = transactions.stream()
-                .collect(Collectors.groupingBy(Transaction::getCategoryName));
-
-        List<CategoryData> categoryDataList = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        CategoryAnalysis analysis = reportQueries.analyzeCategories(startDate, endDate);
+        categoryService.syncCategoryTree();
+        CategoryTree tree = categoryService.getCategoryTree();
 
-        for (Map.Entry<String, List<Transaction>> entry : categoryGroups.entrySet()) {
-            String categoryName = entry.getKey();
-            List<Transaction> categoryTransactions = entry.getValue();
-
-            BigDecimal categoryTotal = categoryTransactions.stream()
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            totalAmount = totalAmount.add(categoryTotal);
-
-            Transaction.TransactionType type = categoryTransactions.get(0).getType();
-
-            categoryDataList.add(new CategoryData(
-                    categoryName, categoryTotal, categoryTransactions.size(), type
-            ));
+        Map<Transaction.TransactionType, Map<Long, CategoryData>> ownByType = new EnumMap<>(Transaction.TransactionType.class);
+        for (CategoryData data : analysis.getCategoryData()) {
+            ownByType.computeIfAbsent(data.getType(), k -> new HashMap<>()).put(data.getCategoryId(), data);
         }
 
-        // Calculate percentages
-        for (CategoryData data : categoryDataList) {
-            if (totalAmount.compareTo(BigDecimal.ZERO) > 0) {
-                double percentage = data.getAmount()
-                        .divide(totalAmount, 4, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100))
-                        .doubleValue();
-                data.setPercentage(percentage);
+        // One bottom-up pass per transaction type for amounts and counts, over a single
+        // snapshot of the tree so categories added or removed meanwhile can't split the two
+        List<Transaction.TransactionType> types = new ArrayList<>(ownByType.keySet());
+        List<Map<Long, Long>> valueSets = new ArrayList<>();
+        for (Transaction.TransactionType type : types) {
+            Map<Long, Long> cents = new HashMap<>();
+            Map<Long, Long> counts = new HashMap<>();
+            for (CategoryData data : ownByType.get(type).values()) {
+                cents.put(data.getCategoryId(), Money.toCents(data.getAmount()));
+                counts.put(data.getCategoryId(), (long) data.getTransactionCount());
+            }
+            valueSets.add(cents);
+            valueSets.add(counts);
+        }
+        CategoryTree.RollUp rollUp = tree.rollUp(valueSets);
+
+        Set<Long> placed = new HashSet<>();
+        List<CategoryData> rows = new ArrayList<>();
+        for (Category category : rollUp.getPreorder()) {
+            placed.add(category.getId());
+            for (int t = 0; t < types.size(); t++) {
+                Transaction.TransactionType type = types.get(t);
+                long subtreeCents = rollUp.getTotals(2 * t).get(category.getId());
+                long subtreeCount = rollUp.getTotals(2 * t + 1).get(category.getId());
+                if (subtreeCount == 0) {
+                    continue;
+                }
+                CategoryData data = ownByType.get(type).get(category.getId());
+                if (data == null) {
+                    data = new CategoryData(category.getId(), category.getName(), BigDecimal.ZERO.setScale(2), 0, type);
+                }
+                data.setLevel(category.getLevel());
+                data.setSubtreeTotals(Money.toBigDecimal(subtreeCents), (int) subtreeCount);
+                rows.add(data);
             }
         }
 
-        // Sort by amount descending
-        categoryDataList.sort((a, b) -> b.getAmount().compareTo(a.getAmount()));
+        // Categories added since the tree was loaded are listed after the hierarchy
+        List<CategoryData> unplaced = new ArrayList<>();
+        for (CategoryData data : analysis.getCategoryData()) {
+            if (!placed.contains(data.getCategoryId())) {
+                unplaced.add(data);
+            }
+        }
+        rows.addAll(unplaced);
 
-        return new CategoryAnalysis(categoryDataList, totalAmount, startDate, endDate);
+        return new CategoryAnalysis(rows, analysis.getTotalAmount(), startDate, endDate);
     }
 
     // Trend Analysis
     public TrendAnalysis generateTrendAnalysis(LocalDate startDate, LocalDate endDate) throws Exception {
-        List<Transaction> transactions = transactionService.getTransactionsByDateRange(startDate, endDate);
-
-        // Group by month
-        Map<YearMonth, List<Transaction>> monthlyGroups = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        t -> YearMonth.from(t.getTransactionDate())
-                ));
-
-        List<MonthlyData> monthlyDataList = new ArrayList<>();
-
-        // Generate data for each month in the range
-        YearMonth start = YearMonth.from(startDate);
-        YearMonth end = YearMonth.from(endDate);
-
-        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
-            List<Transaction> monthTransactions = monthlyGroups.getOrDefault(month, new ArrayList<>());
-
-            BigDecimal monthlyIncome = monthTransactions.stream()
-                    .filter(Transaction::isIncome)
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal monthlyExpense = monthTransactions.stream()
-                    .filter(Transaction::isExpense)
-                    .map(Transaction::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal netAmount = monthlyIncome.subtract(monthlyExpense);
-
-            monthlyDataList.add(new MonthlyData(month, monthlyIncome, monthlyExpense, netAmount));
-        }
-
-        return new TrendAnalysis(monthlyDataList, startDate, endDate);
+        return new TrendAnalysis(reportQueries.monthlyTotals(startDate, endDate), startDate, endDate);
     }
 
     // Budget Performance Analysis
@@ -166,13 +138,13 @@ public class ReportService {
         List<Budget> activeBudgets = budgetService.getActiveBudgets();
         List<BudgetPerformance> performances = new ArrayList<>();
 
-        BigDecimal totalBudgeted = BigDecimal.ZERO;
-        BigDecimal totalSpent = BigDecimal.ZERO;
+        long budgetedCents = 0;
+        long spentCents = 0;
         int overBudgetCount = 0;
 
         for (Budget budget : activeBudgets) {
-            totalBudgeted = totalBudgeted.add(budget.getAmount());
-            totalSpent = totalSpent.add(budget.getSpent());
+            budgetedCents += budget.getAmountCents();
+            spentCents += budget.getSpentCents();
 
             if (budget.isOverBudget()) {
                 overBudgetCount++;
@@ -195,36 +167,28 @@ public class ReportService {
         performances.sort((a, b) -> Double.compare(b.getUsagePercentage(), a.getUsagePercentage()));
 
         return new BudgetAnalysis(
-                performances, totalBudgeted, totalSpent,
-                totalBudgeted.subtract(totalSpent), overBudgetCount
+                performances, Money.toBigDecimal(budgetedCents), Money.toBigDecimal(spentCents),
+                Money.toBigDecimal(budgetedCents - spentCents), overBudgetCount
         );
     }
 
     // Top Transactions Analysis
     public TopTransactionsReport generateTopTransactionsReport(LocalDate startDate, LocalDate endDate, int limit) throws Exception {
-        List<Transaction> transactions = transactionService.getTransactionsByDateRange(startDate, endDate);
+        // Bounded min-heaps keep only the current top entries while rows stream past
+        Comparator<Transaction> byAmount = Comparator.comparingLong(Transaction::getAmountCents);
+        PriorityQueue<Transaction> expenseHeap = new PriorityQueue<>(byAmount);
+        PriorityQueue<Transaction> incomeHeap = new PriorityQueue<>(byAmount);
+        Map<String, Long> categoryFrequency = new HashMap<>();
 
-        // Top expenses
-        List<Transaction> topExpenses = transactions.stream()
-                .filter(Transaction::isExpense)
-                .sorted((a, b) -> b.getAmount().compareTo(a.getAmount()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        transactionService.forEachTransactionInRange(startDate, endDate, transaction -> {
+            offerBounded(transaction.isIncome() ? incomeHeap : expenseHeap, transaction, limit);
+            categoryFrequency.merge(transaction.getCategoryName(), 1L, Long::sum);
+        });
 
-        // Top income
-        List<Transaction> topIncome = transactions.stream()
-                .filter(Transaction::isIncome)
-                .sorted((a, b) -> b.getAmount().compareTo(a.getAmount()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<Transaction> topExpenses = drainDescending(expenseHeap);
+        List<Transaction> topIncome = drainDescending(incomeHeap);
 
         // Most frequent categories
-        Map<String, Long> categoryFrequency = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategoryName,
-                        Collectors.counting()
-                ));
-
         List<Map.Entry<String, Long>> topCategories = categoryFrequency.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .limit(limit)
@@ -233,6 +197,27 @@ public class ReportService {
         return new TopTransactionsReport(topExpenses, topIncome, topCategories, startDate, endDate);
     }
 
+    private static void offerBounded(PriorityQueue<Transaction> heap, Transaction transaction, int limit) {
+        if (limit <= 0) {
+            return;
+        }
+        if (heap.size() < limit) {
+            heap.add(transaction);
+        } else if (transaction.getAmountCents() > heap.peek().getAmountCents()) {
+            heap.poll();
+            heap.add(transaction);
+        }
+    }
+
+    private static List<Transaction> drainDescending(PriorityQueue<Transaction> heap) {
+        List<Transaction> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
     // Financial Health Score
     public FinancialHealthScore calculateFinancialHealth(LocalDate startDate, LocalDate endDate) throws Exception {
         FinancialSummary summary = generateSummaryForPeriod(startDate, endDate, "Health Analysis");
@@ -378,26 +363,50 @@ public class ReportService {
     }
 
     public static class CategoryData {
+        private Long categoryId;
         private String categoryName;
         private BigDecimal amount;
         private int transactionCount;
         private Transaction.TransactionType type;
         private double percentage;
+        private int level;
+        private BigDecimal subtreeAmount;
+        private int subtreeTransactionCount;
 
         public CategoryData(String categoryName, BigDecimal amount, int transactionCount, Transaction.TransactionType type) {
+            this(null, categoryName, amount, transactionCount, type);
+        }
+
+        public CategoryData(Long categoryId, String categoryName, BigDecimal amount, int transactionCount,
+                            Transaction.TransactionType type) {
+            this.categoryId = categoryId;
             this.categoryName = categoryName;
             this.amount = amount;
             this.transactionCount = transactionCount;
             this.type = type;
+            this.subtreeAmount = amount;
+            this.subtreeTransactionCount = transactionCount;
         }
 
         // Getters and setters
+        public Long getCategoryId() { return categoryId; }
         public String getCategoryName() { return categoryName; }
         public BigDecimal getAmount() { return amount; }
         public int getTransactionCount() { return transactionCount; }
         public Transaction.TransactionType getType() { return type; }
         public double getPercentage() { return percentage; }
         public void setPercentage(double percentage) { this.percentage = percentage; }
+
+        // Depth in the category hierarchy and totals including all subcategories
+        public int getLevel() { return level; }
+        public void setLevel(int level) { this.level = level; }
+        public BigDecimal getSubtreeAmount() { return subtreeAmount; }
+        public int getSubtreeTransactionCount() { return subtreeTransactionCount; }
+
+        public void setSubtreeTotals(BigDecimal subtreeAmount, int subtreeTransactionCount) {
+            this.subtreeAmount = subtreeAmount;
+            this.subtreeTransactionCount = subtreeTransactionCount;
+        }
     }
 
     public static class CategoryAnalysis {
@@ -0,0 +1,62 @@
+package main.java.com.moneymind.service;
+
+/**
+ * Application-wide home of the data services. Each service is created once,
+ * on first use, and shared by the UI, the report service and the budget
+ * tracker, so categories are loaded from the database once and every
+ * consumer sees the same category tree.
+ */
+public class ServiceRegistry {
+    private static ServiceRegistry instance;
+
+    private TransactionService transactionService;
+    private CategoryService categoryService;
+    private BudgetService budgetService;
+    private ReportService reportService;
+    private AsyncDataService asyncDataService;
+
+    private ServiceRegistry() {}
+
+    public static synchronized ServiceRegistry getInstance() {
+        if (instance == null) {
+            instance = new ServiceRegistry();
+        }
+        return instance;
+    }
+
+    public synchronized TransactionService getTransactionService() {
+        if (transactionService == null) {
+            transactionService = new TransactionService();
+        }
+        return transactionService;
+    }
+
+    public synchronized CategoryService getCategoryService() {
+        if (categoryService == null) {
+            categoryService = new CategoryService();
+        }
+        return categoryService;
+    }
+
+    public synchronized BudgetService getBudgetService() {
+        if (budgetService == null) {
+            budgetService = new BudgetService();
+        }
+        return budgetService;
+    }
+
+    public synchronized ReportService getReportService() {
+        if (reportService == null) {
+            reportService = new ReportService(getTransactionService(), getCategoryService(), getBudgetService());
+        }
+        return reportService;
+    }
+
+    public synchronized AsyncDataService getAsyncDataService() {
+        if (asyncDataService == null) {
+            asyncDataService = new AsyncDataService(getTransactionService(), getCategoryService(),
+                    getBudgetService(), getReportService());
+        }
+        return asyncDataService;
+    }
+}
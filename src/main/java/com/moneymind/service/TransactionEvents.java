@@ -0,0 +1,105 @@
+package main.java.com.moneymind.service;
+
+import main.java.com.moneymind.model.Transaction;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide notifications about transaction writes. TransactionService
+ * fires these after a write succeeds, on the thread that made the write, so
+ * listeners must be quick and must not touch Swing components directly.
+ *
+ * Each single-row event carries a sequence number taken while the writer
+ * connection was still held, so numbers follow commit order. A listener that
+ * reads state from the database can note {@link #lastSequence()} under the
+ * writer lock and ignore later-delivered events numbered at or below it,
+ * whose rows its read already saw.
+ */
+public class TransactionEvents {
+
+    public interface Listener {
+        void transactionAdded(Transaction transaction, long sequence);
+
+        void transactionUpdated(Transaction before, Transaction after, long sequence);
+
+        void transactionDeleted(Transaction transaction, long sequence);
+
+        /**
+         * Many rows changed at once (bulk import or bulk delete); listeners
+         * should reload whatever they derive from transactions.
+         */
+        void transactionsReset();
+    }
+
+    private static TransactionEvents instance;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private TransactionEvents() {}
+
+    public static synchronized TransactionEvents getInstance() {
+        if (instance == null) {
+            instance = new TransactionEvents();
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Whether anyone is listening, so writers can skip reading the old row.
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    // Sequence numbers
+    /**
+     * Numbers a successful write. Call while still holding the writer
+     * connection that made it.
+     */
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    public long lastSequence() {
+        return sequence.get();
+    }
+
+    // Event dispatch
+    public void fireAdded(Transaction transaction, long sequence) {
+        dispatch(listener -> listener.transactionAdded(transaction, sequence));
+    }
+
+    public void fireUpdated(Transaction before, Transaction after, long sequence) {
+        dispatch(listener -> listener.transactionUpdated(before, after, sequence));
+    }
+
+    public void fireDeleted(Transaction transaction, long sequence) {
+        dispatch(listener -> listener.transactionDeleted(transaction, sequence));
+    }
+
+    public void fireReset() {
+        dispatch(Listener::transactionsReset);
+    }
+
+    private void dispatch(Consumer<Listener> event) {
+        for (Listener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                // The write has already happened; a failing listener must not undo it
+                System.err.println("Transaction listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
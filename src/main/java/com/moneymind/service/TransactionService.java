@@ -1,20 +1,133 @@
 package main.java.com.moneymind.service;
 
+import main.java.com.moneymind.database.ConnectionLease;
 import main.java.com.moneymind.database.DatabaseManager;
+import main.java.com.moneymind.database.FullTextSearch;
+import main.java.com.moneymind.database.StorageProfile;
+import main.java.com.moneymind.model.Money;
 import main.java.com.moneymind.model.Transaction;
+import main.java.com.moneymind.datastructures.ColumnarTransactionList;
 import main.java.com.moneymind.datastructures.TransactionList;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service class for Transaction CRUD operations and business logic
  */
 public class TransactionService {
+    private static final String INSERT_SQL = """
+        INSERT INTO transactions (description, amount_cents, transaction_date, category_id, type)
+        VALUES (?, ?, ?, ?, ?)
+    """;
+
+    private static final String UPDATE_SQL = """
+        UPDATE transactions 
+        SET description = ?, amount_cents = ?, transaction_date = ?, category_id = ?, type = ?
+        WHERE id = ?
+    """;
+
+    private static final String SELECT_WITH_CATEGORY = """
+        SELECT t.*, c.name as category_name 
+        FROM transactions t
+        JOIN categories c ON t.category_id = c.id
+    """;
+
+    private static final int BULK_IMPORT_THRESHOLD = 1000;
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Receives transactions one at a time while the underlying result set is
+     * still open. Must not keep a reference to every row if memory matters.
+     */
+    @FunctionalInterface
+    public interface TransactionVisitor {
+        void visit(Transaction transaction) throws SQLException;
+    }
+
+    /**
+     * Position of a row in ledger order (newest date first, then highest id).
+     * Pages continue strictly after the key of the previous page's last row.
+     */
+    public static final class PageKey {
+        private final long epochDay;
+        private final long id;
+
+        public PageKey(LocalDate date, long id) {
+            this.epochDay = date.toEpochDay();
+            this.id = id;
+        }
+
+        public static PageKey of(Transaction transaction) {
+            return new PageKey(transaction.getTransactionDate(), transaction.getId());
+        }
+    }
+
+    /**
+     * Count and totals of the whole ledger, read in one aggregate query.
+     */
+    public static class LedgerTotals {
+        private final int count;
+        private final long incomeCents;
+        private final long expenseCents;
+
+        public LedgerTotals(int count, long incomeCents, long expenseCents) {
+            this.count = count;
+            this.incomeCents = incomeCents;
+            this.expenseCents = expenseCents;
+        }
+
+        public int getCount() { return count; }
+        public BigDecimal getTotalIncome() { return Money.toBigDecimal(incomeCents); }
+        public BigDecimal getTotalExpense() { return Money.toBigDecimal(expenseCents); }
+        public BigDecimal getNetAmount() { return Money.toBigDecimal(incomeCents - expenseCents); }
+    }
+
+    /**
+     * Sum and count of one day's transactions for a category and type, read
+     * from the daily_aggregates table.
+     */
+    public static class DailyTotal {
+        private final LocalDate day;
+        private final Long categoryId;
+        private final String categoryName;
+        private final Transaction.TransactionType type;
+        private final long cents;
+        private final long count;
+
+        public DailyTotal(LocalDate day, Long categoryId, String categoryName,
+                          Transaction.TransactionType type, long cents, long count) {
+            this.day = day;
+            this.categoryId = categoryId;
+            this.categoryName = categoryName;
+            this.type = type;
+            this.cents = cents;
+            this.count = count;
+        }
+
+        public LocalDate getDay() { return day; }
+        public Long getCategoryId() { return categoryId; }
+        public String getCategoryName() { return categoryName; }
+        public Transaction.TransactionType getType() { return type; }
+        public long getCents() { return cents; }
+        public long getCount() { return count; }
+        public boolean isIncome() { return type == Transaction.TransactionType.INCOME; }
+    }
+
     private DatabaseManager dbManager;
+    private final TransactionEvents events = TransactionEvents.getInstance();
+    private volatile Boolean fullTextAvailable;
+    private volatile int fetchSize = DEFAULT_FETCH_SIZE;
 
     public TransactionService() {
         this.dbManager = DatabaseManager.getInstance();
@@ -22,17 +135,8 @@ public class TransactionService {
 
     // Create operations
     public Long addTransaction(Transaction transaction) throws SQLException {
-        String sql = """
-            INSERT INTO transactions (description, amount, transaction_date, category_id, type)
-            VALUES (?, ?, ?, ?, ?)
-        """;
-
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, transaction.getDescription());
-            stmt.setBigDecimal(2, transaction.getAmount());
-            stmt.setDate(3, Date.valueOf(transaction.getTransactionDate()));
-            stmt.setLong(4, transaction.getCategoryId());
-            stmt.setString(5, transaction.getType().name());
+        try (PreparedStatement stmt = dbManager.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindTransaction(stmt, transaction);
 
             int rowsAffected = stmt.executeUpdate();
             if (rowsAffected > 0) {
@@ -40,6 +144,7 @@ public class TransactionService {
                 if (generatedKeys.next()) {
                     Long id = generatedKeys.getLong(1);
                     transaction.setId(id);
+                    events.fireAdded(transaction, events.nextSequence());
                     return id;
                 }
             }
@@ -48,31 +153,100 @@ public class TransactionService {
     }
 
     public void addTransactions(List<Transaction> transactions) throws SQLException {
-        String sql = """
-            INSERT INTO transactions (description, amount, transaction_date, category_id, type)
-            VALUES (?, ?, ?, ?, ?)
-        """;
-
+        // The writer stays held until the events are numbered
+        ConnectionLease writer = dbManager.borrowWriteConnection();
         try {
-            dbManager.beginTransaction();
-            try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+            // Large imports run under the bulk-load storage profile for their duration
+            if (transactions.size() >= BULK_IMPORT_THRESHOLD && !dbManager.isInTransaction()) {
+                StorageProfile previous = dbManager.getStorageProfile();
+                dbManager.setStorageProfile(StorageProfile.BULK_LOAD);
+                try {
+                    insertBatch(transactions);
+                } finally {
+                    dbManager.setStorageProfile(previous);
+                }
+            } else {
+                insertBatch(transactions);
+            }
+
+            // One reload is cheaper for listeners than thousands of single events
+            if (transactions.size() >= BULK_IMPORT_THRESHOLD) {
+                events.fireReset();
+            } else {
                 for (Transaction transaction : transactions) {
-                    stmt.setString(1, transaction.getDescription());
-                    stmt.setBigDecimal(2, transaction.getAmount());
-                    stmt.setDate(3, Date.valueOf(transaction.getTransactionDate()));
-                    stmt.setLong(4, transaction.getCategoryId());
-                    stmt.setString(5, transaction.getType().name());
-                    stmt.addBatch();
+                    events.fireAdded(transaction, events.nextSequence());
                 }
-                stmt.executeBatch();
             }
-            dbManager.commitTransaction();
-        } catch (SQLException e) {
-            dbManager.rollbackTransaction();
-            throw e;
+        } finally {
+            writer.close();
         }
     }
 
+    // Queued write operations (group-committed by the single writer)
+    // Each operation reads the old row and takes its event number on the writer, inside the batch
+    public CompletableFuture<Long> addTransactionAsync(Transaction transaction) throws SQLException {
+        long[] sequence = new long[1];
+        CompletableFuture<Long> result = dbManager.getWriteQueue().submit(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                bindTransaction(stmt, transaction);
+                stmt.executeUpdate();
+
+                ResultSet generatedKeys = stmt.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    Long id = generatedKeys.getLong(1);
+                    transaction.setId(id);
+                    sequence[0] = events.nextSequence();
+                    return id;
+                }
+                return null;
+            }
+        });
+        return result.whenComplete((id, error) -> {
+            if (error == null && id != null) {
+                events.fireAdded(transaction, sequence[0]);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> updateTransactionAsync(Transaction transaction) throws SQLException {
+        Transaction[] before = new Transaction[1];
+        long[] sequence = new long[1];
+        CompletableFuture<Boolean> result = dbManager.getWriteQueue().submit(connection -> {
+            before[0] = events.hasListeners() ? readTransaction(connection, transaction.getId()) : null;
+            try (PreparedStatement stmt = connection.prepareStatement(UPDATE_SQL)) {
+                bindTransaction(stmt, transaction);
+                stmt.setLong(6, transaction.getId());
+                boolean updated = stmt.executeUpdate() > 0;
+                sequence[0] = events.nextSequence();
+                return updated;
+            }
+        });
+        return result.whenComplete((updated, error) -> {
+            if (error == null && updated && before[0] != null) {
+                events.fireUpdated(before[0], transaction, sequence[0]);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteTransactionAsync(Long id) throws SQLException {
+        Transaction[] before = new Transaction[1];
+        long[] sequence = new long[1];
+        CompletableFuture<Boolean> result = dbManager.getWriteQueue().submit(connection -> {
+            before[0] = events.hasListeners() ? readTransaction(connection, id) : null;
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM transactions WHERE id = ?")) {
+                stmt.setLong(1, id);
+                boolean deleted = stmt.executeUpdate() > 0;
+                sequence[0] = events.nextSequence();
+                return deleted;
+            }
+        });
+        return result.whenComplete((deleted, error) -> {
+            if (error == null && deleted && before[0] != null) {
+                events.fireDeleted(before[0], sequence[0]);
+            }
+        });
+    }
+
     // Read operations
     public Transaction getTransactionById(Long id) throws SQLException {
         String sql = """
@@ -82,7 +256,7 @@ public class TransactionService {
             WHERE t.id = ?
         """;
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, id);
             ResultSet rs = stmt.executeQuery();
 
@@ -94,21 +268,8 @@ public class TransactionService {
     }
 
     public List<Transaction> getAllTransactions() throws SQLException {
-        String sql = """
-            SELECT t.*, c.name as category_name 
-            FROM transactions t
-            JOIN categories c ON t.category_id = c.id
-            ORDER BY t.transaction_date DESC, t.created_at DESC
-        """;
-
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                transactions.add(mapResultSetToTransaction(rs));
-            }
-        }
+        forEachTransaction(transactions::add);
         return transactions;
     }
 
@@ -122,7 +283,7 @@ public class TransactionService {
         """;
 
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, categoryId);
             ResultSet rs = stmt.executeQuery();
 
@@ -134,18 +295,133 @@ public class TransactionService {
     }
 
     public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        forEachTransactionInRange(startDate, endDate, transactions::add);
+        return transactions;
+    }
+
+    // Streaming reads: rows are mapped and handed over one at a time
+    public long forEachTransaction(TransactionVisitor visitor) throws SQLException {
+        String sql = SELECT_WITH_CATEGORY + " ORDER BY t.transaction_date DESC, t.created_at DESC";
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            return visitRows(stmt, visitor);
+        }
+    }
+
+    public long forEachTransactionInRange(LocalDate startDate, LocalDate endDate, TransactionVisitor visitor)
+            throws SQLException {
+        String sql = SELECT_WITH_CATEGORY + " WHERE t.transaction_date BETWEEN ? AND ? ORDER BY t.transaction_date DESC";
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
+            return visitRows(stmt, visitor);
+        }
+    }
+
+    /**
+     * Writes every transaction to a CSV file, streaming rows straight from the
+     * database so memory use does not grow with history size.
+     *
+     * @return the number of transactions written
+     */
+    public long exportToCsv(Path file) throws SQLException, IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,date,description,category,type,amount");
+            writer.newLine();
+
+            try {
+                return forEachTransaction(t -> {
+                    try {
+                        writer.write(t.getId() + "," + t.getTransactionDate() + ","
+                                + csvField(t.getDescription()) + "," + csvField(t.getCategoryName()) + ","
+                                + t.getType() + "," + t.getAmount().toPlainString());
+                        writer.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public int getFetchSize() { return fetchSize; }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    // Ledger paging, ordered by (transaction_date DESC, id DESC)
+
+    /**
+     * Returns the page that follows the given key. The row-value comparison
+     * lets SQLite seek straight to the key on idx_transactions_date_id, so
+     * cost depends only on the page size, not on how deep the page is.
+     */
+    public List<Transaction> getTransactionsPageAfter(PageKey after, int limit) throws SQLException {
+        return getTransactionsPageAfter(after, 0, limit);
+    }
+
+    /**
+     * Returns the page that starts skip rows after the given key. Seeks to the
+     * key, then walks only the skipped rows, so a jump costs the distance from
+     * the nearest known key rather than from the top of the ledger.
+     */
+    public List<Transaction> getTransactionsPageAfter(PageKey after, int skip, int limit) throws SQLException {
+        String sql = SELECT_WITH_CATEGORY + """
+            WHERE (t.transaction_date, t.id) < (?, ?)
+            ORDER BY t.transaction_date DESC, t.id DESC
+            LIMIT ? OFFSET ?
+        """;
+
+        List<Transaction> transactions = new ArrayList<>(limit);
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setLong(1, after.epochDay);
+            stmt.setLong(2, after.id);
+            stmt.setInt(3, limit);
+            stmt.setInt(4, skip);
+            visitRows(stmt, transactions::add);
+        }
+        return transactions;
+    }
+
+    /**
+     * Returns the page starting at a row offset. Used for the first page and
+     * for jumps with no known key above them. SQLite still walks every skipped
+     * row, so the cost of this call grows linearly with the offset; prefer
+     * getTransactionsPageAfter whenever a key above the target is known.
+     */
+    public List<Transaction> getTransactionsPageAt(int offset, int limit) throws SQLException {
+        String sql = SELECT_WITH_CATEGORY + """
+            ORDER BY t.transaction_date DESC, t.id DESC
+            LIMIT ? OFFSET ?
+        """;
+
+        List<Transaction> transactions = new ArrayList<>(limit);
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            visitRows(stmt, transactions::add);
+        }
+        return transactions;
+    }
+
+    public List<Transaction> getTransactionsByType(Transaction.TransactionType type) throws SQLException {
         String sql = """
             SELECT t.*, c.name as category_name 
             FROM transactions t
             JOIN categories c ON t.category_id = c.id
-            WHERE t.transaction_date BETWEEN ? AND ?
+            WHERE t.type = ?
             ORDER BY t.transaction_date DESC
         """;
 
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(startDate));
-            stmt.setDate(2, Date.valueOf(endDate));
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setString(1, type.name());
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
@@ -155,18 +431,53 @@ public class TransactionService {
         return transactions;
     }
 
-    public List<Transaction> getTransactionsByType(Transaction.TransactionType type) throws SQLException {
+    /**
+     * Searches descriptions and category names. Uses the FTS5 index with
+     * prefix matching, "quoted phrases" and bm25 ranking (description hits
+     * weigh more than category hits); falls back to a LIKE scan when the
+     * index is not available.
+     */
+    public List<Transaction> searchTransactions(String keyword) throws SQLException {
+        String matchQuery = FullTextSearch.toMatchQuery(keyword);
+        if (matchQuery == null) {
+            return keyword == null || keyword.isBlank() ? getAllTransactions() : searchTransactionsLike(keyword);
+        }
+
+        if (isFullTextSearchAvailable()) {
+            try {
+                return searchTransactionsFullText(matchQuery);
+            } catch (SQLException e) {
+                System.err.println("Full-text search failed, falling back to LIKE: " + e.getMessage());
+                if (FullTextSearch.isIndexMissing(e)) {
+                    fullTextAvailable = false; // Only a missing index disables FTS for later searches
+                }
+            }
+        }
+        return searchTransactionsLike(keyword);
+    }
+
+    public boolean isFullTextSearchAvailable() throws SQLException {
+        Boolean available = fullTextAvailable;
+        if (available == null) {
+            available = dbManager.tableExists(FullTextSearch.TABLE);
+            fullTextAvailable = available;
+        }
+        return available;
+    }
+
+    private List<Transaction> searchTransactionsFullText(String matchQuery) throws SQLException {
         String sql = """
-            SELECT t.*, c.name as category_name 
-            FROM transactions t
+            SELECT t.*, c.name as category_name
+            FROM transactions_fts f
+            JOIN transactions t ON t.id = f.rowid
             JOIN categories c ON t.category_id = c.id
-            WHERE t.type = ?
-            ORDER BY t.transaction_date DESC
+            WHERE transactions_fts MATCH ?
+            ORDER BY bm25(transactions_fts, 2.0, 1.0), t.transaction_date DESC
         """;
 
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setString(1, type.name());
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setString(1, matchQuery);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
@@ -176,7 +487,7 @@ public class TransactionService {
         return transactions;
     }
 
-    public List<Transaction> searchTransactions(String keyword) throws SQLException {
+    private List<Transaction> searchTransactionsLike(String keyword) throws SQLException {
         String sql = """
             SELECT t.*, c.name as category_name 
             FROM transactions t
@@ -186,7 +497,7 @@ public class TransactionService {
         """;
 
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             String searchPattern = "%" + keyword + "%";
             stmt.setString(1, searchPattern);
             stmt.setString(2, searchPattern);
@@ -209,7 +520,7 @@ public class TransactionService {
         """;
 
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setInt(1, limit);
             ResultSet rs = stmt.executeQuery();
 
@@ -222,21 +533,21 @@ public class TransactionService {
 
     // Update operations
     public boolean updateTransaction(Transaction transaction) throws SQLException {
-        String sql = """
-            UPDATE transactions 
-            SET description = ?, amount = ?, transaction_date = ?, category_id = ?, type = ?
-            WHERE id = ?
-        """;
-
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setString(1, transaction.getDescription());
-            stmt.setBigDecimal(2, transaction.getAmount());
-            stmt.setDate(3, Date.valueOf(transaction.getTransactionDate()));
-            stmt.setLong(4, transaction.getCategoryId());
-            stmt.setString(5, transaction.getType().name());
+        // Listeners need the old values to undo their effect; read them under the
+        // writer so no other write can change the row in between
+        ConnectionLease writer = dbManager.borrowWriteConnection();
+        try (PreparedStatement stmt = dbManager.prepareStatement(UPDATE_SQL)) {
+            Transaction before = events.hasListeners() ? getTransactionById(transaction.getId()) : null;
+            bindTransaction(stmt, transaction);
             stmt.setLong(6, transaction.getId());
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated && before != null) {
+                events.fireUpdated(before, transaction, events.nextSequence());
+            }
+            return updated;
+        } finally {
+            writer.close();
         }
     }
 
@@ -244,9 +555,17 @@ public class TransactionService {
     public boolean deleteTransaction(Long id) throws SQLException {
         String sql = "DELETE FROM transactions WHERE id = ?";
 
+        ConnectionLease writer = dbManager.borrowWriteConnection();
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+            Transaction before = events.hasListeners() ? getTransactionById(id) : null;
             stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted && before != null) {
+                events.fireDeleted(before, events.nextSequence());
+            }
+            return deleted;
+        } finally {
+            writer.close();
         }
     }
 
@@ -255,7 +574,11 @@ public class TransactionService {
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
             stmt.setLong(1, categoryId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                events.fireReset();
+            }
+            return deleted;
         }
     }
 
@@ -263,84 +586,153 @@ public class TransactionService {
         String sql = "DELETE FROM transactions WHERE transaction_date < ?";
 
         try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(date));
-            return stmt.executeUpdate();
+            stmt.setLong(1, date.toEpochDay());
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                events.fireReset();
+            }
+            return deleted;
         }
     }
 
     // Statistics and aggregation methods
     public BigDecimal getTotalIncome() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = 'INCOME'";
+        String sql = "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE type = 'INCOME'";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return Money.toBigDecimal(rs.getLong(1));
             }
             return BigDecimal.ZERO;
         }
     }
 
     public BigDecimal getTotalExpense() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE type = 'EXPENSE'";
+        String sql = "SELECT COALESCE(SUM(amount_cents), 0) FROM transactions WHERE type = 'EXPENSE'";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return Money.toBigDecimal(rs.getLong(1));
             }
             return BigDecimal.ZERO;
         }
     }
 
     public BigDecimal getNetAmount() throws SQLException {
-        return getTotalIncome().subtract(getTotalExpense());
+        String sql = """
+            SELECT COALESCE(SUM(CASE WHEN type = 'INCOME' THEN amount_cents ELSE -amount_cents END), 0)
+            FROM transactions
+        """;
+
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return Money.toBigDecimal(rs.getLong(1));
+            }
+            return BigDecimal.ZERO;
+        }
     }
 
     public BigDecimal getTotalForPeriod(LocalDate startDate, LocalDate endDate, Transaction.TransactionType type) throws SQLException {
         String sql = """
-            SELECT COALESCE(SUM(amount), 0) 
-            FROM transactions 
-            WHERE transaction_date BETWEEN ? AND ? AND type = ?
+            SELECT COALESCE(SUM(total_cents), 0) 
+            FROM daily_aggregates 
+            WHERE day BETWEEN ? AND ? AND type = ?
         """;
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(startDate));
-            stmt.setDate(2, Date.valueOf(endDate));
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
             stmt.setString(3, type.name());
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return Money.toBigDecimal(rs.getLong(1));
             }
             return BigDecimal.ZERO;
         }
     }
 
     public BigDecimal getTotalForCategory(Long categoryId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        return Money.toBigDecimal(getTotalCentsForCategory(categoryId, startDate, endDate));
+    }
+
+    public long getTotalCentsForCategory(Long categoryId, LocalDate startDate, LocalDate endDate) throws SQLException {
         String sql = """
-            SELECT COALESCE(SUM(amount), 0) 
-            FROM transactions 
-            WHERE category_id = ? AND transaction_date BETWEEN ? AND ?
+            SELECT COALESCE(SUM(total_cents), 0) 
+            FROM daily_aggregates 
+            WHERE category_id = ? AND day BETWEEN ? AND ?
         """;
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             stmt.setLong(1, categoryId);
-            stmt.setDate(2, Date.valueOf(startDate));
-            stmt.setDate(3, Date.valueOf(endDate));
+            stmt.setLong(2, startDate.toEpochDay());
+            stmt.setLong(3, endDate.toEpochDay());
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getBigDecimal(1);
+                return rs.getLong(1);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the per-day totals for a date range, one entry per day,
+     * category and type that has transactions. The result grows with the
+     * number of days in the range, not the number of transactions.
+     */
+    public List<DailyTotal> getDailyTotals(LocalDate startDate, LocalDate endDate) throws SQLException {
+        String sql = """
+            SELECT a.day, a.category_id, c.name as category_name, a.type, a.total_cents, a.transaction_count
+            FROM daily_aggregates a
+            JOIN categories c ON a.category_id = c.id
+            WHERE a.day BETWEEN ? AND ?
+            ORDER BY a.day
+        """;
+
+        List<DailyTotal> totals = new ArrayList<>();
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            stmt.setLong(1, startDate.toEpochDay());
+            stmt.setLong(2, endDate.toEpochDay());
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                totals.add(new DailyTotal(
+                        LocalDate.ofEpochDay(rs.getLong("day")),
+                        rs.getLong("category_id"),
+                        rs.getString("category_name"),
+                        Transaction.TransactionType.valueOf(rs.getString("type")),
+                        rs.getLong("total_cents"),
+                        rs.getLong("transaction_count")));
             }
-            return BigDecimal.ZERO;
+        }
+        return totals;
+    }
+
+    public LedgerTotals getLedgerTotals() throws SQLException {
+        String sql = """
+            SELECT COUNT(*),
+                   COALESCE(SUM(CASE WHEN type = 'INCOME' THEN amount_cents END), 0),
+                   COALESCE(SUM(CASE WHEN type = 'EXPENSE' THEN amount_cents END), 0)
+            FROM transactions
+        """;
+
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return new LedgerTotals(rs.getInt(1), rs.getLong(2), rs.getLong(3));
+            }
+            return new LedgerTotals(0, 0, 0);
         }
     }
 
     public int getTransactionCount() throws SQLException {
         String sql = "SELECT COUNT(*) FROM transactions";
 
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql)) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
                 return rs.getInt(1);
@@ -351,7 +743,17 @@ public class TransactionService {
 
     // Advanced filtering with TransactionList
     public TransactionList getTransactionList() throws SQLException {
-        return new TransactionList(getAllTransactions());
+        return new TransactionList(getAllTransactions(), true);
+    }
+
+    /**
+     * Every transaction in a ColumnarTransactionList, streamed in so the rows
+     * are never all held as Transaction objects at once.
+     */
+    public ColumnarTransactionList getColumnarTransactionList() throws SQLException {
+        ColumnarTransactionList transactions = new ColumnarTransactionList();
+        forEachTransaction(transactions::add);
+        return transactions;
     }
 
     public TransactionList getFilteredTransactionList(LocalDate startDate, LocalDate endDate,
@@ -367,12 +769,12 @@ public class TransactionService {
 
         if (startDate != null) {
             sql.append(" AND t.transaction_date >= ?");
-            parameters.add(Date.valueOf(startDate));
+            parameters.add(startDate.toEpochDay());
         }
 
         if (endDate != null) {
             sql.append(" AND t.transaction_date <= ?");
-            parameters.add(Date.valueOf(endDate));
+            parameters.add(endDate.toEpochDay());
         }
 
         if (type != null) {
@@ -388,12 +790,10 @@ public class TransactionService {
         sql.append(" ORDER BY t.transaction_date DESC");
 
         List<Transaction> transactions = new ArrayList<>();
-        try (PreparedStatement stmt = dbManager.prepareStatement(sql.toString())) {
+        try (PreparedStatement stmt = dbManager.prepareReadStatement(sql.toString())) {
             for (int i = 0; i < parameters.size(); i++) {
                 Object param = parameters.get(i);
-                if (param instanceof Date) {
-                    stmt.setDate(i + 1, (Date) param);
-                } else if (param instanceof String) {
+                if (param instanceof String) {
                     stmt.setString(i + 1, (String) param);
                 } else if (param instanceof Long) {
                     stmt.setLong(i + 1, (Long) param);
@@ -409,13 +809,70 @@ public class TransactionService {
         return new TransactionList(transactions);
     }
 
+    private void insertBatch(List<Transaction> transactions) throws SQLException {
+        try {
+            dbManager.beginTransaction();
+            try (PreparedStatement stmt = dbManager.prepareStatement(INSERT_SQL)) {
+                for (Transaction transaction : transactions) {
+                    bindTransaction(stmt, transaction);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            dbManager.commitTransaction();
+        } catch (SQLException e) {
+            dbManager.rollbackTransaction();
+            throw e;
+        }
+    }
+
+    // Helper method to bind the insert/update columns in INSERT_SQL and UPDATE_SQL order
+    private void bindTransaction(PreparedStatement stmt, Transaction transaction) throws SQLException {
+        stmt.setString(1, transaction.getDescription());
+        stmt.setLong(2, transaction.getAmountCents());
+        stmt.setLong(3, transaction.getTransactionDate().toEpochDay());
+        stmt.setLong(4, transaction.getCategoryId());
+        stmt.setString(5, transaction.getType().name());
+    }
+
+    private long visitRows(PreparedStatement stmt, TransactionVisitor visitor) throws SQLException {
+        stmt.setFetchSize(fetchSize);
+        long count = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                visitor.visit(mapResultSetToTransaction(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    // Reads a row on a connection the caller already holds, such as the write queue's
+    private Transaction readTransaction(Connection connection, Long id) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(SELECT_WITH_CATEGORY + " WHERE t.id = ?")) {
+            stmt.setLong(1, id);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? mapResultSetToTransaction(rs) : null;
+        }
+    }
+
     // Helper method to map ResultSet to Transaction object
     private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
         Transaction transaction = new Transaction();
         transaction.setId(rs.getLong("id"));
         transaction.setDescription(rs.getString("description"));
-        transaction.setAmount(rs.getBigDecimal("amount"));
-        transaction.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
+        transaction.setAmountCents(rs.getLong("amount_cents"));
+        transaction.setTransactionDate(LocalDate.ofEpochDay(rs.getLong("transaction_date")));
         transaction.setCategoryId(rs.getLong("category_id"));
         transaction.setCategoryName(rs.getString("category_name"));
         transaction.setType(Transaction.TransactionType.valueOf(rs.getString("type")));
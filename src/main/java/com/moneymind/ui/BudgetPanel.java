@@ -2,6 +2,7 @@ package main.java.com.moneymind.ui;
 
 import main.java.com.moneymind.model.Budget;
 import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.service.AsyncDataService;
 import main.java.com.moneymind.service.BudgetService;
 import main.java.com.moneymind.service.CategoryService;
 import main.java.com.moneymind.utils.CurrencyUtils;
@@ -25,6 +26,7 @@ import java.util.List;
 public class BudgetPanel extends JPanel {
     private BudgetService budgetService;
     private CategoryService categoryService;
+    private AsyncDataService asyncDataService;
 
     // UI Components
     private JTable budgetTable;
@@ -59,9 +61,11 @@ public class BudgetPanel extends JPanel {
     // Current selection
     private Budget selectedBudget;
 
-    public BudgetPanel(BudgetService budgetService, CategoryService categoryService) {
+    public BudgetPanel(BudgetService budgetService, CategoryService categoryService,
+                       AsyncDataService asyncDataService) {
         this.budgetService = budgetService;
         this.categoryService = categoryService;
+        this.asyncDataService = asyncDataService;
 
         initializeComponents();
         setupLayout();
@@ -366,7 +370,8 @@ public class BudgetPanel extends JPanel {
 
                 // Check for overlapping budgets
                 ValidationUtils.ValidationResult overlapCheck = ValidationUtils.validateBudgetOverlap(
-                        budget.getStartDate(), budget.getEndDate(), budget.getCategoryId(), null
+                        budget.getStartDate(), budget.getEndDate(), budget.getCategoryId(), null,
+                        budgetService.getBudgetIndex()
                 );
 
                 if (!overlapCheck.isValid()) {
@@ -642,7 +647,7 @@ public class BudgetPanel extends JPanel {
         alertPanel.removeAll();
 
         try {
-            List<String> alerts = budgetService.getBudgetAlerts();
+            List<String> alerts = budgetService.getBudgetAlerts(budgets);
 
             if (alerts.isEmpty()) {
                 JLabel noAlertsLabel = new JLabel("No budget alerts");
@@ -671,14 +676,25 @@ public class BudgetPanel extends JPanel {
     }
 
     public void refreshData() {
-        try {
-            List<Budget> budgets = budgetService.getActiveBudgets();
-            updateTable(budgets);
-            updateAnalysis(budgets);
-            loadCategories();
-        } catch (Exception e) {
-            showError("Error refreshing data: " + e.getMessage());
-        }
+        refreshData(() -> { }, () -> { });
+    }
+
+    /**
+     * Reloads the panel off the EDT, then runs onLoaded or onFailed on the
+     * EDT once the result has been shown or the error reported.
+     */
+    public void refreshData(Runnable onLoaded, Runnable onFailed) {
+        AsyncDataService.onEdt(asyncDataService.getActiveBudgets(),
+                budgets -> {
+                    updateTable(budgets);
+                    updateAnalysis(budgets);
+                    loadCategories();
+                    onLoaded.run();
+                },
+                e -> {
+                    showError("Error refreshing data: " + e.getMessage());
+                    onFailed.run();
+                });
     }
 
     // Utility methods
@@ -1,6 +1,7 @@
 package main.java.com.moneymind.ui;
 
 import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.service.AsyncDataService;
 import main.java.com.moneymind.service.CategoryService;
 import main.java.com.moneymind.utils.ValidationUtils;
 
@@ -18,6 +19,7 @@ import java.util.List;
  */
 public class CategoryPanel extends JPanel {
     private CategoryService categoryService;
+    private AsyncDataService asyncDataService;
 
     // UI Components
     private JTree categoryTree;
@@ -45,8 +47,9 @@ public class CategoryPanel extends JPanel {
     // Current selection
     private Category selectedCategory;
 
-    public CategoryPanel(CategoryService categoryService) {
+    public CategoryPanel(CategoryService categoryService, AsyncDataService asyncDataService) {
         this.categoryService = categoryService;
+        this.asyncDataService = asyncDataService;
 
         initializeComponents();
         setupLayout();
@@ -668,21 +671,35 @@ public class CategoryPanel extends JPanel {
     }
 
     public void refreshData() {
-        try {
-            categoryService.refreshCategoryTree();
-            List<Category> categories = categoryService.getAllCategories();
-            buildTreeFromCategories(categories);
-            updateParentComboBox();
-
-            // Update statistics if they exist
-            Component[] components = getComponents();
-            for (Component comp : components) {
-                if (comp instanceof JPanel) {
-                    updateStatsIfExists((JPanel) comp);
-                }
+        refreshData(() -> { }, () -> { });
+    }
+
+    /**
+     * Reloads the panel off the EDT, then runs onLoaded or onFailed on the
+     * EDT once the result has been shown or the error reported.
+     */
+    public void refreshData(Runnable onLoaded, Runnable onFailed) {
+        AsyncDataService.onEdt(asyncDataService.refreshCategories(),
+                categories -> {
+                    showCategories(categories);
+                    onLoaded.run();
+                },
+                e -> {
+                    showError("Error refreshing data: " + e.getMessage());
+                    onFailed.run();
+                });
+    }
+
+    private void showCategories(List<Category> categories) {
+        buildTreeFromCategories(categories);
+        updateParentComboBox();
+
+        // Update statistics if they exist
+        Component[] components = getComponents();
+        for (Component comp : components) {
+            if (comp instanceof JPanel) {
+                updateStatsIfExists((JPanel) comp);
             }
-        } catch (Exception e) {
-            showError("Error refreshing data: " + e.getMessage());
         }
     }
 
@@ -0,0 +1,222 @@
+package main.java.com.moneymind.ui;
+
+import main.java.com.moneymind.model.Transaction;
+import main.java.com.moneymind.service.AsyncDataService;
+import main.java.com.moneymind.service.TransactionService;
+import main.java.com.moneymind.utils.DateUtils;
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Table model for the transaction table that only holds the pages near the
+ * viewport. Ledger pages are fetched off the EDT as rows are painted, the
+ * next page is prefetched once the user is halfway through the current one,
+ * and pages far from the viewport are dropped. Search and filter results are
+ * shown from an in-memory list instead.
+ *
+ * All methods must be called on the EDT.
+ */
+public class LazyTransactionTableModel extends AbstractTableModel {
+    public static final int PAGE_SIZE = 100;
+
+    private static final int MAX_CACHED_PAGES = 8;
+    private static final int EVICT_DISTANCE = 3;
+    private static final int MAX_PAGE_KEYS = 1024;
+
+    private static final String[] COLUMN_NAMES = {"ID", "Date", "Description", "Category", "Type", "Amount"};
+
+    private final AsyncDataService asyncDataService;
+
+    // Page cache in access order; the eldest page goes when the cap is reached
+    private final Map<Integer, List<Transaction>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Transaction>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    // Key of the last row of each loaded page, so the following page can use keyset paging
+    private final Map<Integer, TransactionService.PageKey> pageEndKeys = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, TransactionService.PageKey> eldest) {
+            return size() > MAX_PAGE_KEYS;
+        }
+    };
+
+    // Page loads still in flight, so they can be cancelled when their page is no longer wanted
+    private final Map<Integer, CompletableFuture<List<Transaction>>> loading = new HashMap<>();
+
+    private List<Transaction> fixedRows;
+    private int rowCount;
+    private int generation;
+
+    public LazyTransactionTableModel(AsyncDataService asyncDataService) {
+        this.asyncDataService = asyncDataService;
+    }
+
+    /**
+     * Switches to paging through the full ledger of the given size.
+     */
+    public void showLedger(int totalRows) {
+        clear();
+        rowCount = totalRows;
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    /**
+     * Shows an already loaded result, such as a search or filter.
+     */
+    public void setTransactions(List<Transaction> transactions) {
+        clear();
+        fixedRows = transactions;
+        rowCount = transactions.size();
+        fireTableDataChanged();
+    }
+
+    public boolean isPaged() {
+        return fixedRows == null;
+    }
+
+    /**
+     * Returns the transaction at a model row, or null while its page is loading.
+     */
+    public Transaction getTransactionAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        if (fixedRows != null) {
+            return fixedRows.get(row);
+        }
+
+        int page = row / PAGE_SIZE;
+        int index = row % PAGE_SIZE;
+
+        List<Transaction> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        if (index >= PAGE_SIZE / 2) {
+            requestPage(page + 1);
+        }
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    // TableModel implementation
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Transaction transaction = getTransactionAt(row);
+        if (transaction == null) {
+            return column == 2 ? "Loading..." : null;
+        }
+
+        switch (column) {
+            case 0: return transaction.getId();
+            case 1: return DateUtils.formatForDisplay(transaction.getTransactionDate());
+            case 2: return transaction.getDescription();
+            case 3: return transaction.getCategoryName();
+            case 4: return transaction.getType().name();
+            case 5: return transaction.getAmount();
+            default: return null;
+        }
+    }
+
+    // Private helper methods
+    private void clear() {
+        generation++;
+        pages.clear();
+        pageEndKeys.clear();
+        for (CompletableFuture<List<Transaction>> future : loading.values()) {
+            future.cancel(true);
+        }
+        loading.clear();
+        fixedRows = null;
+    }
+
+    private void requestPage(int page) {
+        if (page < 0 || (long) page * PAGE_SIZE >= rowCount
+                || pages.containsKey(page) || loading.containsKey(page)) {
+            return;
+        }
+        evictDistantPages(page);
+
+        // Seek from the nearest known page end above this page; offset from the top only without one
+        int keyPage = -1;
+        for (int known : pageEndKeys.keySet()) {
+            if (known < page && known > keyPage) {
+                keyPage = known;
+            }
+        }
+        CompletableFuture<List<Transaction>> future = keyPage >= 0
+                ? asyncDataService.getTransactionsPageAfter(pageEndKeys.get(keyPage),
+                        (page - keyPage - 1) * PAGE_SIZE, PAGE_SIZE)
+                : asyncDataService.getTransactionsPageAt(page * PAGE_SIZE, PAGE_SIZE);
+        loading.put(page, future);
+
+        int requestGeneration = generation;
+        AsyncDataService.onEdt(future,
+                rows -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loading.remove(page, future);
+                    pages.put(page, rows);
+                    if (!rows.isEmpty()) {
+                        pageEndKeys.put(page, TransactionService.PageKey.of(rows.get(rows.size() - 1)));
+                    }
+
+                    firePageUpdated(page);
+                },
+                error -> {
+                    System.err.println("Failed to load transaction page " + page + ": " + error.getMessage());
+                    if (requestGeneration == generation && loading.remove(page, future)) {
+                        // Repaint the placeholder rows so the next paint asks for the page again
+                        firePageUpdated(page);
+                    }
+                });
+    }
+
+    private void firePageUpdated(int page) {
+        int firstRow = page * PAGE_SIZE;
+        int lastRow = Math.min(firstRow + PAGE_SIZE, rowCount) - 1;
+        if (firstRow <= lastRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    private void evictDistantPages(int page) {
+        pages.keySet().removeIf(cached -> Math.abs(cached - page) > EVICT_DISTANCE);
+
+        // Loads queued for pages the user has scrolled away from would only delay the one they stopped on
+        Iterator<Map.Entry<Integer, CompletableFuture<List<Transaction>>>> it = loading.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, CompletableFuture<List<Transaction>>> entry = it.next();
+            if (Math.abs(entry.getKey() - page) > EVICT_DISTANCE) {
+                entry.getValue().cancel(true);
+                it.remove();
+            }
+        }
+    }
+}
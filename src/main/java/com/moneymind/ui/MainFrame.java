@@ -1,5 +1,6 @@
 package main.java.com.moneymind.ui;
 
+import main.java.com.moneymind.model.Budget;
 import main.java.com.moneymind.service.*;
 import main.java.com.moneymind.ui.components.*;
 import main.java.com.moneymind.ui.theme.*;
@@ -17,6 +18,7 @@ public class MainFrame extends JFrame {
     private CategoryService categoryService;
     private BudgetService budgetService;
     private ReportService reportService;
+    private AsyncDataService asyncDataService;
 
     // UI Components - now modularized
     private ModernTabbedPane tabbedPane;
@@ -39,10 +41,12 @@ public class MainFrame extends JFrame {
     }
 
     private void initializeServices() {
-        transactionService = new TransactionService();
-        categoryService = new CategoryService();
-        budgetService = new BudgetService();
-        reportService = new ReportService();
+        ServiceRegistry services = ServiceRegistry.getInstance();
+        transactionService = services.getTransactionService();
+        categoryService = services.getCategoryService();
+        budgetService = services.getBudgetService();
+        reportService = services.getReportService();
+        asyncDataService = services.getAsyncDataService();
     }
 
     private void setupModernUI() {
@@ -81,10 +85,10 @@ public class MainFrame extends JFrame {
         tabbedPane = new ModernTabbedPane();
 
         // Create panels with modern styling
-        transactionPanel = new TransactionPanel(transactionService, categoryService);
-        budgetPanel = new BudgetPanel(budgetService, categoryService);
-        categoryPanel = new CategoryPanel(categoryService);
-        reportsPanel = new ReportsPanel(reportService, categoryService);
+        transactionPanel = new TransactionPanel(transactionService, categoryService, asyncDataService);
+        budgetPanel = new BudgetPanel(budgetService, categoryService, asyncDataService);
+        categoryPanel = new CategoryPanel(categoryService, asyncDataService);
+        reportsPanel = new ReportsPanel(reportService, categoryService, asyncDataService);
 
         // Apply modern styling to panels
         ThemeManager.applyPanelStyling(transactionPanel);
@@ -151,6 +155,24 @@ public class MainFrame extends JFrame {
                 updateResponsiveLayout();
             }
         });
+
+        // Budget thresholds are reported as transactions are written
+        BudgetTracker.getInstance().addAlertListener((budget, threshold) ->
+                SwingUtilities.invokeLater(() -> showBudgetAlert(budget, threshold)));
+    }
+
+    private void showBudgetAlert(Budget budget, int threshold) {
+        budgetPanel.refreshData();
+        if (threshold >= BudgetTracker.OVER_LIMIT_PERCENT) {
+            statusBar.setStatus("Over budget: " + budget.getCategoryName());
+            ModernDialogs.showWarningDialog(this,
+                    String.format("%s has used %.1f%% of its budget.",
+                            budget.getCategoryName(), budget.getUsagePercentage()),
+                    "Budget Exceeded");
+        } else {
+            statusBar.setStatus(String.format("%s has reached %d%% of its budget",
+                    budget.getCategoryName(), threshold));
+        }
     }
 
     private void updateResponsiveLayout() {
@@ -164,33 +186,33 @@ public class MainFrame extends JFrame {
     }
 
     private void refreshCurrentPanel(int tabIndex) {
-        SwingUtilities.invokeLater(() -> {
-            statusBar.setStatus("Refreshing data...");
-
-            switch (tabIndex) {
-                case 0: // Transactions
-                    transactionPanel.refreshData();
-                    statusBar.setStatus("Transactions updated");
-                    break;
-                case 1: // Budgets
-                    budgetPanel.refreshData();
-                    statusBar.setStatus("Budgets updated");
-                    break;
-                case 2: // Categories
-                    categoryPanel.refreshData();
-                    statusBar.setStatus("Categories updated");
-                    break;
-                case 3: // Reports
-                    reportsPanel.refreshData();
-                    statusBar.setStatus("Reports updated");
-                    break;
-            }
+        statusBar.setStatus("Refreshing data...");
+        Runnable failed = () -> showStatusBriefly("Refresh failed");
+
+        // Each panel loads off the EDT; the status changes once its data is shown
+        switch (tabIndex) {
+            case 0: // Transactions
+                transactionPanel.refreshData(() -> showStatusBriefly("Transactions updated"), failed);
+                break;
+            case 1: // Budgets
+                budgetPanel.refreshData(() -> showStatusBriefly("Budgets updated"), failed);
+                break;
+            case 2: // Categories
+                categoryPanel.refreshData(() -> showStatusBriefly("Categories updated"), failed);
+                break;
+            case 3: // Reports
+                reportsPanel.refreshData(() -> showStatusBriefly("Reports updated"), failed);
+                break;
+        }
+    }
 
-            // Clear status after delay
-            Timer timer = new Timer(2000, e -> statusBar.setStatus("Ready"));
-            timer.setRepeats(false);
-            timer.start();
-        });
+    private void showStatusBriefly(String status) {
+        statusBar.setStatus(status);
+
+        // Clear status after delay
+        Timer timer = new Timer(2000, e -> statusBar.setStatus("Ready"));
+        timer.setRepeats(false);
+        timer.start();
     }
 
     // Menu action methods (unchanged functionality, enhanced UI)
@@ -214,11 +236,17 @@ public class MainFrame extends JFrame {
 
         if (fileChooser.showSaveDialog(this) == ModernFileChooser.APPROVE_OPTION) {
             statusBar.setStatus("Exporting transactions...");
-            // Implementation for CSV export
-            ModernDialogs.showInfoDialog(this,
-                    "Export functionality will be implemented in next version",
-                    "Feature Coming Soon");
-            statusBar.setStatus("Ready");
+            AsyncDataService.onEdt(asyncDataService.exportTransactionsCsv(fileChooser.getSelectedFile().toPath()),
+                    count -> {
+                        statusBar.setStatus("Ready");
+                        ModernDialogs.showInfoDialog(this,
+                                "Exported " + count + " transactions.", "Export Complete");
+                    },
+                    error -> {
+                        statusBar.setStatus("Ready");
+                        ModernDialogs.showErrorDialog(this,
+                                "Error exporting transactions: " + error.getMessage(), "Export Failed");
+                    });
         }
     }
 
@@ -248,6 +276,20 @@ public class MainFrame extends JFrame {
         }
     }
 
+    public void rebuildReportTotals() {
+        statusBar.setStatus("Rebuilding report totals...");
+        AsyncDataService.onEdt(asyncDataService.rebuildDailyAggregates(),
+                ignored -> {
+                    refreshAllPanels();
+                    statusBar.setStatus("Report totals rebuilt");
+                },
+                error -> {
+                    statusBar.setStatus("Ready");
+                    ModernDialogs.showErrorDialog(this,
+                            "Error rebuilding report totals: " + error.getMessage(), "Rebuild Failed");
+                });
+    }
+
     public void showSettings() {
         SettingsDialog settingsDialog = new SettingsDialog(this);
         settingsDialog.setVisible(true);
@@ -274,6 +316,7 @@ public class MainFrame extends JFrame {
             statusBar.setStatus("Closing application...");
             AnimationManager.fadeOutWindow(this, () -> {
                 try {
+                    asyncDataService.shutdown();
                     // Close database connection
                     main.java.com.moneymind.database.DatabaseManager.getInstance().disconnect();
                 } catch (Exception e) {
@@ -303,11 +346,21 @@ public class MainFrame extends JFrame {
 
     public void refreshAllPanels() {
         statusBar.setStatus("Refreshing all data...");
-        transactionPanel.refreshData();
-        budgetPanel.refreshData();
-        categoryPanel.refreshData();
-        reportsPanel.refreshData();
-        statusBar.setStatus("All data refreshed");
+        int[] pending = {4};
+        boolean[] failed = {false};
+        Runnable finished = () -> {
+            if (--pending[0] == 0) {
+                showStatusBriefly(failed[0] ? "Refresh failed" : "All data refreshed");
+            }
+        };
+        Runnable failedOne = () -> {
+            failed[0] = true;
+            finished.run();
+        };
+        transactionPanel.refreshData(finished, failedOne);
+        budgetPanel.refreshData(finished, failedOne);
+        categoryPanel.refreshData(finished, failedOne);
+        reportsPanel.refreshData(finished, failedOne);
     }
 
     // Additional modern features
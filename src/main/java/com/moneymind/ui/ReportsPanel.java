@@ -1,6 +1,7 @@
 package main.java.com.moneymind.ui;
 
 import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.service.AsyncDataService;
 import main.java.com.moneymind.service.ReportService;
 import main.java.com.moneymind.service.CategoryService;
 import main.java.com.moneymind.utils.CurrencyUtils;
@@ -15,6 +16,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Panel for displaying financial reports and analytics
@@ -22,6 +24,7 @@ import java.util.Map;
 public class ReportsPanel extends JPanel {
     private ReportService reportService;
     private CategoryService categoryService;
+    private AsyncDataService asyncDataService;
 
     // UI Components
     private JTabbedPane reportTabs;
@@ -63,9 +66,11 @@ public class ReportsPanel extends JPanel {
     private JTextArea healthRecommendationArea;
     private JList<String> healthFactorsList;
 
-    public ReportsPanel(ReportService reportService, CategoryService categoryService) {
+    public ReportsPanel(ReportService reportService, CategoryService categoryService,
+                        AsyncDataService asyncDataService) {
         this.reportService = reportService;
         this.categoryService = categoryService;
+        this.asyncDataService = asyncDataService;
 
         initializeComponents();
         setupLayout();
@@ -93,7 +98,7 @@ public class ReportsPanel extends JPanel {
 
         setupDateSpinners(categoryStartDateSpinner, categoryEndDateSpinner);
 
-        String[] categoryColumns = {"Category", "Amount", "Transactions", "Percentage"};
+        String[] categoryColumns = {"Category", "Amount", "Transactions", "Percentage", "With Subcategories"};
         categoryTableModel = new DefaultTableModel(categoryColumns, 0);
         categoryAnalysisTable = new JTable(categoryTableModel);
         categoryAnalysisTable.setDefaultRenderer(Object.class, new CategoryAnalysisCellRenderer());
@@ -357,36 +362,44 @@ public class ReportsPanel extends JPanel {
     }
 
     private void generateSummaryReport() {
-        try {
-            String selectedPeriod = (String) summaryPeriodComboBox.getSelectedItem();
-            ReportService.FinancialSummary summary;
-
-            switch (selectedPeriod) {
-                case "Monthly":
-                    int year = (Integer) summaryYearSpinner.getValue();
-                    int month = (Integer) summaryMonthSpinner.getValue();
-                    summary = reportService.generateMonthlySummary(year, month);
-                    break;
-                case "Yearly":
-                    year = (Integer) summaryYearSpinner.getValue();
-                    summary = reportService.generateYearlySummary(year);
-                    break;
-                case "Custom":
-                    // For custom, we'll use current month as example
-                    summary = reportService.generateMonthlySummary(
-                            LocalDate.now().getYear(),
-                            LocalDate.now().getMonthValue()
-                    );
-                    break;
-                default:
-                    return;
-            }
+        generateSummaryReport(() -> { }, () -> { });
+    }
 
-            displaySummaryReport(summary);
+    private void generateSummaryReport(Runnable onLoaded, Runnable onFailed) {
+        String selectedPeriod = (String) summaryPeriodComboBox.getSelectedItem();
+        CompletableFuture<ReportService.FinancialSummary> summary;
 
-        } catch (Exception e) {
-            showError("Error generating summary report: " + e.getMessage());
+        switch (selectedPeriod) {
+            case "Monthly":
+                int year = (Integer) summaryYearSpinner.getValue();
+                int month = (Integer) summaryMonthSpinner.getValue();
+                summary = asyncDataService.generateMonthlySummary(year, month);
+                break;
+            case "Yearly":
+                year = (Integer) summaryYearSpinner.getValue();
+                summary = asyncDataService.generateYearlySummary(year);
+                break;
+            case "Custom":
+                // For custom, we'll use current month as example
+                summary = asyncDataService.generateMonthlySummary(
+                        LocalDate.now().getYear(),
+                        LocalDate.now().getMonthValue()
+                );
+                break;
+            default:
+                onLoaded.run();
+                return;
         }
+
+        AsyncDataService.onEdt(summary,
+                result -> {
+                    displaySummaryReport(result);
+                    onLoaded.run();
+                },
+                e -> {
+                    showError("Error generating summary report: " + e.getMessage());
+                    onFailed.run();
+                });
     }
 
     private void displaySummaryReport(ReportService.FinancialSummary summary) {
@@ -454,16 +467,12 @@ public class ReportsPanel extends JPanel {
     }
 
     private void generateCategoryAnalysis() {
-        try {
-            LocalDate startDate = getDateFromSpinner(categoryStartDateSpinner);
-            LocalDate endDate = getDateFromSpinner(categoryEndDateSpinner);
+        LocalDate startDate = getDateFromSpinner(categoryStartDateSpinner);
+        LocalDate endDate = getDateFromSpinner(categoryEndDateSpinner);
 
-            ReportService.CategoryAnalysis analysis = reportService.generateCategoryAnalysis(startDate, endDate);
-            displayCategoryAnalysis(analysis);
-
-        } catch (Exception e) {
-            showError("Error generating category analysis: " + e.getMessage());
-        }
+        AsyncDataService.onEdt(asyncDataService.generateCategoryAnalysis(startDate, endDate),
+                this::displayCategoryAnalysis,
+                e -> showError("Error generating category analysis: " + e.getMessage()));
     }
 
     private void displayCategoryAnalysis(ReportService.CategoryAnalysis analysis) {
@@ -471,26 +480,23 @@ public class ReportsPanel extends JPanel {
 
         for (ReportService.CategoryData categoryData : analysis.getCategoryData()) {
             Object[] row = {
-                    categoryData.getCategoryName(),
+                    "    ".repeat(categoryData.getLevel()) + categoryData.getCategoryName(),
                     categoryData.getAmount(),
                     categoryData.getTransactionCount(),
-                    categoryData.getPercentage()
+                    categoryData.getPercentage(),
+                    categoryData.getSubtreeAmount()
             };
             categoryTableModel.addRow(row);
         }
     }
 
     private void generateTrendAnalysis() {
-        try {
-            LocalDate startDate = getDateFromSpinner(trendStartDateSpinner);
-            LocalDate endDate = getDateFromSpinner(trendEndDateSpinner);
+        LocalDate startDate = getDateFromSpinner(trendStartDateSpinner);
+        LocalDate endDate = getDateFromSpinner(trendEndDateSpinner);
 
-            ReportService.TrendAnalysis analysis = reportService.generateTrendAnalysis(startDate, endDate);
-            displayTrendAnalysis(analysis);
-
-        } catch (Exception e) {
-            showError("Error generating trend analysis: " + e.getMessage());
-        }
+        AsyncDataService.onEdt(asyncDataService.generateTrendAnalysis(startDate, endDate),
+                this::displayTrendAnalysis,
+                e -> showError("Error generating trend analysis: " + e.getMessage()));
     }
 
     private void displayTrendAnalysis(ReportService.TrendAnalysis analysis) {
@@ -508,13 +514,19 @@ public class ReportsPanel extends JPanel {
     }
 
     private void generateBudgetAnalysis() {
-        try {
-            ReportService.BudgetAnalysis analysis = reportService.generateBudgetAnalysis();
-            displayBudgetAnalysis(analysis);
+        generateBudgetAnalysis(() -> { }, () -> { });
+    }
 
-        } catch (Exception e) {
-            showError("Error generating budget analysis: " + e.getMessage());
-        }
+    private void generateBudgetAnalysis(Runnable onLoaded, Runnable onFailed) {
+        AsyncDataService.onEdt(asyncDataService.generateBudgetAnalysis(),
+                analysis -> {
+                    displayBudgetAnalysis(analysis);
+                    onLoaded.run();
+                },
+                e -> {
+                    showError("Error generating budget analysis: " + e.getMessage());
+                    onFailed.run();
+                });
     }
 
     private void displayBudgetAnalysis(ReportService.BudgetAnalysis analysis) {
@@ -561,16 +573,12 @@ public class ReportsPanel extends JPanel {
     }
 
     private void generateHealthScore() {
-        try {
-            LocalDate startDate = getDateFromSpinner(healthStartDateSpinner);
-            LocalDate endDate = getDateFromSpinner(healthEndDateSpinner);
-
-            ReportService.FinancialHealthScore healthScore = reportService.calculateFinancialHealth(startDate, endDate);
-            displayHealthScore(healthScore);
+        LocalDate startDate = getDateFromSpinner(healthStartDateSpinner);
+        LocalDate endDate = getDateFromSpinner(healthEndDateSpinner);
 
-        } catch (Exception e) {
-            showError("Error calculating health score: " + e.getMessage());
-        }
+        AsyncDataService.onEdt(asyncDataService.calculateFinancialHealth(startDate, endDate),
+                this::displayHealthScore,
+                e -> showError("Error calculating health score: " + e.getMessage()));
     }
 
     private void displayHealthScore(ReportService.FinancialHealthScore healthScore) {
@@ -627,15 +635,28 @@ public class ReportsPanel extends JPanel {
     }
 
     public void refreshData() {
-        // Auto-generate some reports on panel load
-        SwingUtilities.invokeLater(() -> {
-            try {
-                generateSummaryReport();
-                generateBudgetAnalysis();
-            } catch (Exception e) {
-                // Silently handle errors on initial load
+        refreshData(() -> { }, () -> { });
+    }
+
+    /**
+     * Regenerates the summary and budget reports off the EDT, then runs
+     * onLoaded, or onFailed if either report failed, on the EDT once both
+     * have finished.
+     */
+    public void refreshData(Runnable onLoaded, Runnable onFailed) {
+        int[] pending = {2};
+        boolean[] failed = {false};
+        Runnable finished = () -> {
+            if (--pending[0] == 0) {
+                (failed[0] ? onFailed : onLoaded).run();
             }
-        });
+        };
+        Runnable failedOne = () -> {
+            failed[0] = true;
+            finished.run();
+        };
+        generateSummaryReport(finished, failedOne);
+        generateBudgetAnalysis(finished, failedOne);
     }
 
     // Utility methods
@@ -669,7 +690,7 @@ public class ReportsPanel extends JPanel {
 
             Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 
-            if (column == 1 && value instanceof BigDecimal) { // Amount column
+            if ((column == 1 || column == 4) && value instanceof BigDecimal) { // Amount columns
                 setText(CurrencyUtils.format((BigDecimal) value));
                 setHorizontalAlignment(SwingConstants.RIGHT);
             } else if (column == 3 && value instanceof Double) { // Percentage column
@@ -2,6 +2,7 @@ package main.java.com.moneymind.ui;
 
 import main.java.com.moneymind.model.Transaction;
 import main.java.com.moneymind.model.Category;
+import main.java.com.moneymind.service.AsyncDataService;
 import main.java.com.moneymind.service.TransactionService;
 import main.java.com.moneymind.service.CategoryService;
 import main.java.com.moneymind.utils.CurrencyUtils;
@@ -10,7 +11,6 @@ import main.java.com.moneymind.utils.ValidationUtils;
 import main.java.com.moneymind.datastructures.TransactionSorter;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
@@ -27,11 +27,12 @@ import java.util.ArrayList;
 public class TransactionPanel extends JPanel {
     private TransactionService transactionService;
     private CategoryService categoryService;
+    private AsyncDataService asyncDataService;
 
     // UI Components
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
-    private TableRowSorter<DefaultTableModel> tableSorter;
+    private LazyTransactionTableModel tableModel;
+    private TableRowSorter<LazyTransactionTableModel> tableSorter;
 
     // Form components
     private JTextField descriptionField;
@@ -56,9 +57,11 @@ public class TransactionPanel extends JPanel {
     // Current selection
     private Transaction selectedTransaction;
 
-    public TransactionPanel(TransactionService transactionService, CategoryService categoryService) {
+    public TransactionPanel(TransactionService transactionService, CategoryService categoryService,
+                            AsyncDataService asyncDataService) {
         this.transactionService = transactionService;
         this.categoryService = categoryService;
+        this.asyncDataService = asyncDataService;
 
         initializeComponents();
         setupLayout();
@@ -67,22 +70,15 @@ public class TransactionPanel extends JPanel {
     }
 
     private void initializeComponents() {
-        // Create table
-        String[] columnNames = {"ID", "Date", "Description", "Category", "Type", "Amount"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Create table; the full ledger is paged in lazily as the user scrolls
+        tableModel = new LazyTransactionTableModel(asyncDataService);
 
         transactionTable = new JTable(tableModel);
         transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         transactionTable.setRowHeight(25);
 
-        // Set up table sorting
+        // Set up table sorting (only for in-memory results, sorting would load every page)
         tableSorter = new TableRowSorter<>(tableModel);
-        transactionTable.setRowSorter(tableSorter);
 
         // Hide ID column
         transactionTable.getColumnModel().getColumn(0).setMinWidth(0);
@@ -107,6 +103,7 @@ public class TransactionPanel extends JPanel {
 
         categoryComboBox = new JComboBox<>();
         categoryComboBox.setRenderer(new CategoryComboBoxRenderer());
+        categoryComboBox.setKeySelectionManager(new CategoryKeySelectionManager());
 
         dateSpinner = new JSpinner(new SpinnerDateModel());
         JSpinner.DateEditor dateEditor = new JSpinner.DateEditor(dateSpinner, "MMM dd, yyyy");
@@ -304,10 +301,13 @@ public class TransactionPanel extends JPanel {
         if (selectedRow >= 0) {
             // Convert view row to model row
             int modelRow = transactionTable.convertRowIndexToModel(selectedRow);
-            Long transactionId = (Long) tableModel.getValueAt(modelRow, 0);
+            Transaction row = tableModel.getTransactionAt(modelRow);
+            if (row == null) {
+                return; // Page still loading
+            }
 
             try {
-                selectedTransaction = transactionService.getTransactionById(transactionId);
+                selectedTransaction = transactionService.getTransactionById(row.getId());
                 if (selectedTransaction != null) {
                     populateForm(selectedTransaction);
                     editButton.setEnabled(true);
@@ -343,19 +343,22 @@ public class TransactionPanel extends JPanel {
         }
     }
 
+    // Form writes go through the write queue, so a burst of edits shares one commit
     private void addTransaction() {
         if (validateForm()) {
             try {
                 Transaction transaction = createTransactionFromForm();
-                Long id = transactionService.addTransaction(transaction);
-
-                if (id != null) {
-                    showMessage("Transaction added successfully!");
-                    clearForm();
-                    refreshData();
-                } else {
-                    showError("Failed to add transaction.");
-                }
+                AsyncDataService.onEdt(transactionService.addTransactionAsync(transaction),
+                        id -> {
+                            if (id != null) {
+                                showMessage("Transaction added successfully!");
+                                clearForm();
+                                refreshData();
+                            } else {
+                                showError("Failed to add transaction.");
+                            }
+                        },
+                        error -> showError("Error adding transaction: " + error.getMessage()));
             } catch (Exception e) {
                 showError("Error adding transaction: " + e.getMessage());
             }
@@ -368,15 +371,17 @@ public class TransactionPanel extends JPanel {
                 Transaction transaction = createTransactionFromForm();
                 transaction.setId(selectedTransaction.getId());
 
-                boolean success = transactionService.updateTransaction(transaction);
-
-                if (success) {
-                    showMessage("Transaction updated successfully!");
-                    clearForm();
-                    refreshData();
-                } else {
-                    showError("Failed to update transaction.");
-                }
+                AsyncDataService.onEdt(transactionService.updateTransactionAsync(transaction),
+                        success -> {
+                            if (success) {
+                                showMessage("Transaction updated successfully!");
+                                clearForm();
+                                refreshData();
+                            } else {
+                                showError("Failed to update transaction.");
+                            }
+                        },
+                        error -> showError("Error updating transaction: " + error.getMessage()));
             } catch (Exception e) {
                 showError("Error updating transaction: " + e.getMessage());
             }
@@ -397,15 +402,17 @@ public class TransactionPanel extends JPanel {
 
             if (result == JOptionPane.YES_OPTION) {
                 try {
-                    boolean success = transactionService.deleteTransaction(selectedTransaction.getId());
-
-                    if (success) {
-                        showMessage("Transaction deleted successfully!");
-                        clearForm();
-                        refreshData();
-                    } else {
-                        showError("Failed to delete transaction.");
-                    }
+                    AsyncDataService.onEdt(transactionService.deleteTransactionAsync(selectedTransaction.getId()),
+                            success -> {
+                                if (success) {
+                                    showMessage("Transaction deleted successfully!");
+                                    clearForm();
+                                    refreshData();
+                                } else {
+                                    showError("Failed to delete transaction.");
+                                }
+                            },
+                            error -> showError("Error deleting transaction: " + error.getMessage()));
                 } catch (Exception e) {
                     showError("Error deleting transaction: " + e.getMessage());
                 }
@@ -487,13 +494,9 @@ public class TransactionPanel extends JPanel {
             return;
         }
 
-        try {
-            List<Transaction> searchResults = transactionService.searchTransactions(searchText);
-            updateTable(searchResults);
-            updateSummary(searchResults);
-        } catch (Exception e) {
-            showError("Error searching transactions: " + e.getMessage());
-        }
+        AsyncDataService.onEdt(asyncDataService.searchTransactions(searchText),
+                this::showTransactions,
+                e -> showError("Error searching transactions: " + e.getMessage()));
     }
 
     private void clearSearch() {
@@ -502,26 +505,17 @@ public class TransactionPanel extends JPanel {
     }
 
     private void filterByType(Transaction.TransactionType type) {
-        try {
-            List<Transaction> filteredTransactions = transactionService.getTransactionsByType(type);
-            updateTable(filteredTransactions);
-            updateSummary(filteredTransactions);
-        } catch (Exception e) {
-            showError("Error filtering transactions: " + e.getMessage());
-        }
+        AsyncDataService.onEdt(asyncDataService.getTransactionsByType(type),
+                this::showTransactions,
+                e -> showError("Error filtering transactions: " + e.getMessage()));
     }
 
     private void filterByCurrentMonth() {
-        try {
-            DateUtils.DateRange currentMonth = DateUtils.getCurrentMonth();
-            List<Transaction> monthTransactions = transactionService.getTransactionsByDateRange(
-                    currentMonth.getStartDate(), currentMonth.getEndDate()
-            );
-            updateTable(monthTransactions);
-            updateSummary(monthTransactions);
-        } catch (Exception e) {
-            showError("Error filtering by current month: " + e.getMessage());
-        }
+        DateUtils.DateRange currentMonth = DateUtils.getCurrentMonth();
+        AsyncDataService.onEdt(
+                asyncDataService.getTransactionsByDateRange(currentMonth.getStartDate(), currentMonth.getEndDate()),
+                this::showTransactions,
+                e -> showError("Error filtering by current month: " + e.getMessage()));
     }
 
     private void clearFilters() {
@@ -531,19 +525,8 @@ public class TransactionPanel extends JPanel {
 
     // Table management
     private void updateTable(List<Transaction> transactions) {
-        tableModel.setRowCount(0);
-
-        for (Transaction transaction : transactions) {
-            Object[] row = {
-                    transaction.getId(),
-                    DateUtils.formatForDisplay(transaction.getTransactionDate()),
-                    transaction.getDescription(),
-                    transaction.getCategoryName(),
-                    transaction.getType().name(),
-                    transaction.getAmount()
-            };
-            tableModel.addRow(row);
-        }
+        transactionTable.setRowSorter(tableSorter);
+        tableModel.setTransactions(transactions);
     }
 
     private void updateSummary(List<Transaction> transactions) {
@@ -558,12 +541,16 @@ public class TransactionPanel extends JPanel {
             }
         }
 
+        updateSummary(totalIncome, totalExpense, transactions.size());
+    }
+
+    private void updateSummary(BigDecimal totalIncome, BigDecimal totalExpense, int transactionCount) {
         BigDecimal netAmount = totalIncome.subtract(totalExpense);
 
         totalIncomeLabel.setText("Total Income: " + CurrencyUtils.format(totalIncome));
         totalExpenseLabel.setText("Total Expense: " + CurrencyUtils.format(totalExpense));
         netAmountLabel.setText("Net Amount: " + CurrencyUtils.format(netAmount));
-        transactionCountLabel.setText("Transactions: " + transactions.size());
+        transactionCountLabel.setText("Transactions: " + transactionCount);
 
         // Update net amount color
         if (netAmount.compareTo(BigDecimal.ZERO) > 0) {
@@ -576,14 +563,35 @@ public class TransactionPanel extends JPanel {
     }
 
     public void refreshData() {
-        try {
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            updateTable(transactions);
-            updateSummary(transactions);
-            updateCategoriesForType();
-        } catch (Exception e) {
-            showError("Error refreshing data: " + e.getMessage());
-        }
+        refreshData(() -> { }, () -> { });
+    }
+
+    /**
+     * Reloads the panel off the EDT, then runs onLoaded or onFailed on the
+     * EDT once the result has been shown or the error reported.
+     */
+    public void refreshData(Runnable onLoaded, Runnable onFailed) {
+        AsyncDataService.onEdt(asyncDataService.getLedgerTotals(),
+                totals -> {
+                    showLedger(totals);
+                    updateCategoriesForType();
+                    onLoaded.run();
+                },
+                e -> {
+                    showError("Error refreshing data: " + e.getMessage());
+                    onFailed.run();
+                });
+    }
+
+    private void showLedger(TransactionService.LedgerTotals totals) {
+        transactionTable.setRowSorter(null);
+        tableModel.showLedger(totals.getCount());
+        updateSummary(totals.getTotalIncome(), totals.getTotalExpense(), totals.getCount());
+    }
+
+    private void showTransactions(List<Transaction> transactions) {
+        updateTable(transactions);
+        updateSummary(transactions);
     }
 
     // Utility methods
@@ -646,18 +654,46 @@ public class TransactionPanel extends JPanel {
         }
     }
 
+    // Type-ahead for the category combo box: keys typed in quick succession
+    // build a prefix, and the best completion for it is selected
+    private class CategoryKeySelectionManager implements JComboBox.KeySelectionManager {
+        private static final long TYPING_PAUSE_MS = 1000;
+
+        private final StringBuilder prefix = new StringBuilder();
+        private long lastKeyTime;
+
+        @Override
+        public int selectionForKey(char key, ComboBoxModel<?> model) {
+            long now = System.currentTimeMillis();
+            if (now - lastKeyTime > TYPING_PAUSE_MS) {
+                prefix.setLength(0);
+            }
+            lastKeyTime = now;
+            prefix.append(key);
+
+            Category.CategoryType type = Category.CategoryType.valueOf((String) typeComboBox.getSelectedItem());
+            List<Category> matches = categoryService.completeCategories(prefix.toString(), type, 1);
+            if (matches.isEmpty()) {
+                return -1;
+            }
+            for (int i = 0; i < model.getSize(); i++) {
+                if (matches.get(0).equals(model.getElementAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
     // Export functionality
     public void exportTransactions() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV files", "csv"));
 
         if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                // Implementation for CSV export would go here
-                showMessage("Export functionality coming soon!");
-            } catch (Exception e) {
-                showError("Error exporting transactions: " + e.getMessage());
-            }
+            AsyncDataService.onEdt(asyncDataService.exportTransactionsCsv(fileChooser.getSelectedFile().toPath()),
+                    count -> showMessage("Exported " + count + " transactions."),
+                    error -> showError("Error exporting transactions: " + error.getMessage()));
         }
     }
 
@@ -665,24 +701,22 @@ public class TransactionPanel extends JPanel {
     public void quickAddTransaction(String description, BigDecimal amount, Transaction.TransactionType type, String categoryName) {
         try {
             // Find category by name
-            List<Category> categories = categoryService.getCategoriesByType(
+            Category selectedCategory = categoryService.findCategoryByName(categoryName,
                     type == Transaction.TransactionType.INCOME ?
                             Category.CategoryType.INCOME : Category.CategoryType.EXPENSE
             );
 
-            Category selectedCategory = categories.stream()
-                    .filter(c -> c.getName().equalsIgnoreCase(categoryName))
-                    .findFirst()
-                    .orElse(null);
-
             if (selectedCategory != null) {
                 Transaction transaction = new Transaction(
                         description, amount, LocalDate.now(), selectedCategory.getId(), type
                 );
 
-                transactionService.addTransaction(transaction);
-                refreshData();
-                showMessage("Transaction added quickly!");
+                AsyncDataService.onEdt(transactionService.addTransactionAsync(transaction),
+                        id -> {
+                            refreshData();
+                            showMessage("Transaction added quickly!");
+                        },
+                        error -> showError("Error adding quick transaction: " + error.getMessage()));
             } else {
                 showError("Category '" + categoryName + "' not found!");
             }
@@ -693,29 +727,19 @@ public class TransactionPanel extends JPanel {
 
     // Sorting functionality
     public void sortTransactionsByDate(boolean ascending) {
-        try {
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            TransactionSorter.sort(transactions,
-                    TransactionSorter.SortBy.DATE,
-                    ascending ? TransactionSorter.SortOrder.ASCENDING : TransactionSorter.SortOrder.DESCENDING
-            );
-            updateTable(transactions);
-        } catch (Exception e) {
-            showError("Error sorting transactions: " + e.getMessage());
-        }
+        sortTransactions(TransactionSorter.SortBy.DATE, ascending);
     }
 
     public void sortTransactionsByAmount(boolean ascending) {
-        try {
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            TransactionSorter.sort(transactions,
-                    TransactionSorter.SortBy.AMOUNT,
-                    ascending ? TransactionSorter.SortOrder.ASCENDING : TransactionSorter.SortOrder.DESCENDING
-            );
-            updateTable(transactions);
-        } catch (Exception e) {
-            showError("Error sorting transactions: " + e.getMessage());
-        }
+        sortTransactions(TransactionSorter.SortBy.AMOUNT, ascending);
+    }
+
+    private void sortTransactions(TransactionSorter.SortBy sortBy, boolean ascending) {
+        AsyncDataService.onEdt(
+                asyncDataService.getAllTransactionsSorted(sortBy,
+                        ascending ? TransactionSorter.SortOrder.ASCENDING : TransactionSorter.SortOrder.DESCENDING),
+                this::updateTable,
+                e -> showError("Error sorting transactions: " + e.getMessage()));
     }
 
     // Getters for external access
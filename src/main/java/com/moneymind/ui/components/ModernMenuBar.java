@@ -59,6 +59,8 @@ public class ModernMenuBar extends JMenuBar {
                 e -> invokeMainFrameMethod("backupDatabase")));
         toolsMenu.add(createMenuItem("Restore Database",
                 e -> invokeMainFrameMethod("restoreDatabase")));
+        toolsMenu.add(createMenuItem("Rebuild Report Totals",
+                e -> invokeMainFrameMethod("rebuildReportTotals")));
         toolsMenu.addSeparator();
         toolsMenu.add(createMenuItem("Settings", 'S',
                 e -> invokeMainFrameMethod("showSettings")));
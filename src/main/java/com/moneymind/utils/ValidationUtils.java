@@ -1,5 +1,7 @@
 package main.java.com.moneymind.utils;
 
+import main.java.com.moneymind.datastructures.BudgetIntervalIndex;
+import main.java.com.moneymind.model.Budget;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.regex.Pattern;
@@ -450,10 +452,18 @@ public class ValidationUtils {
 
     public static ValidationResult validateBudgetOverlap(LocalDate startDate, LocalDate endDate,
                                                          Long categoryId, Long excludeBudgetId) {
-        ValidationResult result = new ValidationResult();
+        return validateBudgetOverlap(startDate, endDate, categoryId, excludeBudgetId, null);
+    }
 
-        // This would typically check against the database for overlapping budgets
-        // For now, we'll just validate the basic constraints
+    /**
+     * Also rejects the period if the index holds another budget of the same
+     * category sharing at least one day with it. A null index checks only the
+     * basic constraints.
+     */
+    public static ValidationResult validateBudgetOverlap(LocalDate startDate, LocalDate endDate,
+                                                         Long categoryId, Long excludeBudgetId,
+                                                         BudgetIntervalIndex existingBudgets) {
+        ValidationResult result = new ValidationResult();
 
         if (!isValidBudgetPeriod(startDate, endDate)) {
             result.addError("Invalid budget period");
@@ -463,8 +473,14 @@ public class ValidationUtils {
             result.addError("Invalid category for budget");
         }
 
-        // Note: In a real implementation, you would check the database here
-        // for existing budgets in the same category and time period
+        if (result.isValid() && existingBudgets != null) {
+            for (Budget budget : existingBudgets.findOverlapping(categoryId, startDate, endDate)) {
+                if (!budget.getId().equals(excludeBudgetId)) {
+                    result.addError("A budget for this category already covers "
+                            + budget.getStartDate() + " to " + budget.getEndDate());
+                }
+            }
+        }
 
         return result;
     }